@@ -0,0 +1,46 @@
+package com.css.challenge.benchmark;
+
+import com.css.challenge.client.Order;
+import com.css.challenge.config.Config;
+import com.css.challenge.trace.Tracer;
+
+import java.time.Instant;
+import java.util.Properties;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/** Shared setup for the benchmarks: quiet logging, storage sizing and order factories. */
+final class Benchmarks {
+    private static final String[] TEMPS = {"hot", "cold", "room"};
+
+    // Held strongly so the level is not lost when java.util.logging drops unreferenced loggers.
+    private static final Logger APPLICATION_LOGGER = Logger.getLogger("com.css.challenge");
+
+    private Benchmarks() {}
+
+    /** Turns off per-operation info logging and tracing, which would otherwise dominate every measurement. */
+    static void quietLogging() {
+        APPLICATION_LOGGER.setLevel(Level.WARNING);
+        Tracer.setEnabled(false);
+    }
+
+    /** Makes new OrderManagementSystems use the given storage sizes. */
+    static void configureCapacities(int cooler, int heater, int shelf) {
+        Properties properties = new Properties();
+        properties.setProperty("cooler.capacity", String.valueOf(cooler));
+        properties.setProperty("heater.capacity", String.valueOf(heater));
+        properties.setProperty("shelf.capacity", String.valueOf(shelf));
+        Config.set(Config.parse(properties));
+    }
+
+    /** An order placed five seconds ago, i.e. inside the pickup window. */
+    static Order order(String id, String temp, int freshness) {
+        Order order = new Order(id, "Benchmark " + temp, temp, freshness);
+        order.setTimestamp(Instant.now().minusSeconds(5));
+        return order;
+    }
+
+    static String temp(long sequence) {
+        return TEMPS[(int) (sequence % TEMPS.length)];
+    }
+}
@@ -0,0 +1,105 @@
+package com.css.challenge.benchmark;
+
+import com.css.challenge.client.ActionLog;
+import com.css.challenge.client.Order;
+import com.css.challenge.management.OrderManagementSystem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * OrderManagementSystem.placeOrder with every storage already full, so each placement goes through the overflow
+ * path (move or discard). Shelf size is a parameter and thread count is swept by the 1, 4 and max-thread variants.
+ * The batch variants place {@value #BATCH} orders per placeOrders call and report per-order throughput.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderManagementBenchmark {
+
+    static final int BATCH = 64;
+
+    @Param({"12", "1024", "65536"})
+    int shelfSize;
+
+    private OrderManagementSystem oms;
+    private ActionLog actions;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        Benchmarks.quietLogging();
+        int storageSize = Math.max(6, shelfSize / 2);
+        Benchmarks.configureCapacities(storageSize, storageSize, shelfSize);
+        oms = new OrderManagementSystem();
+        actions = new ActionLog(); // fresh per iteration so the log does not grow without bound
+        for (int i = 0; i < 2 * storageSize + shelfSize; i++) {
+            place();
+        }
+    }
+
+    private List<Order> batch() {
+        List<Order> batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            long id = sequence.getAndIncrement();
+            batch.add(Benchmarks.order("o" + id, Benchmarks.temp(id), 30 + (int) (id % 600)));
+        }
+        return batch;
+    }
+
+    private void place() {
+        long id = sequence.getAndIncrement();
+        oms.placeOrder(Benchmarks.order("o" + id, Benchmarks.temp(id), 30 + (int) (id % 600)), actions);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void placeOrderFullShelf_1Thread() {
+        place();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void placeOrderFullShelf_4Threads() {
+        place();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void placeOrderFullShelf_MaxThreads() {
+        place();
+    }
+
+    @Benchmark
+    @Threads(1)
+    @OperationsPerInvocation(BATCH)
+    public void placeOrdersFullShelf_1Thread() {
+        oms.placeOrders(batch(), actions);
+    }
+
+    @Benchmark
+    @Threads(4)
+    @OperationsPerInvocation(BATCH)
+    public void placeOrdersFullShelf_4Threads() {
+        oms.placeOrders(batch(), actions);
+    }
+}
@@ -0,0 +1,87 @@
+package com.css.challenge.benchmark;
+
+import com.css.challenge.client.ActionLog;
+import com.css.challenge.client.Order;
+import com.css.challenge.management.OrderManagementSystem;
+import com.css.challenge.management.SingleWriterOrderManagementSystem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The locking and single-writer OrderManagementSystem modes against each other: every operation places a hot order
+ * and picks it up again, so storages stay partly empty and the numbers compare the cost of getting a command applied
+ * rather than the overflow path. Thread count is swept by the 1, 4 and max-thread variants.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderManagementModeBenchmark {
+
+    @Param({"locking", "single-writer"})
+    String mode;
+
+    private OrderManagementSystem oms;
+    private ActionLog actions;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        Benchmarks.quietLogging();
+        Benchmarks.configureCapacities(1024, 1024, 1024);
+        oms = mode.equals("single-writer")
+                ? new SingleWriterOrderManagementSystem(Clock.systemUTC(), null,
+                        SingleWriterOrderManagementSystem.DEFAULT_RING_SIZE)
+                : new OrderManagementSystem();
+        actions = new ActionLog(); // fresh per iteration so the log does not grow without bound
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        if (oms instanceof SingleWriterOrderManagementSystem) {
+            ((SingleWriterOrderManagementSystem) oms).close();
+        }
+    }
+
+    private void placeAndPickup() {
+        Order order = Benchmarks.order("o" + sequence.getAndIncrement(), "hot", 300);
+        oms.placeOrder(order, actions);
+        oms.pickupOrder(order, actions);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void placeAndPickup_1Thread() {
+        placeAndPickup();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void placeAndPickup_4Threads() {
+        placeAndPickup();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void placeAndPickup_MaxThreads() {
+        placeAndPickup();
+    }
+}
@@ -0,0 +1,72 @@
+package com.css.challenge.benchmark;
+
+import com.css.challenge.client.Order;
+import com.css.challenge.storage.OffHeapShelf;
+import com.css.challenge.storage.Shelf;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Least-fresh lookups and discard-and-replace on a full shelf of the given size, on and off the heap. Run with
+ * {@code -prof gc} to compare the allocation rate and GC time of the two backends as the shelf grows.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShelfBenchmark {
+
+    @Param({"12", "1024", "65536"})
+    int shelfSize;
+
+    @Param({"heap", "offheap"})
+    String backend;
+
+    private Shelf shelf;
+    private long sequence;
+
+    @Setup
+    public void setUp() {
+        Benchmarks.quietLogging();
+        shelf = "offheap".equals(backend) ? new OffHeapShelf(shelfSize) : new Shelf(shelfSize);
+        for (sequence = 0; sequence < shelfSize; sequence++) {
+            shelf.addOrder(Benchmarks.order("s" + sequence, Benchmarks.temp(sequence), 30 + (int) (sequence % 600)));
+        }
+    }
+
+    @Benchmark
+    public Order getOrderToDiscard() {
+        return shelf.getOrderToDiscard();
+    }
+
+    @Benchmark
+    public Order getLeastFreshHotOrder() {
+        return shelf.getLeastFreshHotOrder();
+    }
+
+    @Benchmark
+    public Order getLeastFreshColdOrder() {
+        return shelf.getLeastFreshColdOrder();
+    }
+
+    @Benchmark
+    public boolean discardAndReplace() {
+        Order least = shelf.getOrderToDiscard();
+        shelf.removeOrder(least.getId());
+        long id = sequence++;
+        return shelf.addOrder(Benchmarks.order("s" + id, Benchmarks.temp(id), 30 + (int) (id % 600)));
+    }
+}
@@ -0,0 +1,71 @@
+package com.css.challenge.benchmark;
+
+import com.css.challenge.client.ActionSink;
+import com.css.challenge.client.Order;
+import com.css.challenge.storage.OffHeapStorage;
+import com.css.challenge.storage.Storage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/** Storage add, remove and pickup against a half-full storage of the given capacity, on and off the heap. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StorageBenchmark {
+
+    @Param({"6", "1024", "65536"})
+    int capacity;
+
+    @Param({"heap", "offheap"})
+    String backend;
+
+    private Storage storage;
+    private Order[] resident;
+    private final ActionSink discard = (timestamp, id, action) -> {};
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Benchmarks.quietLogging();
+        storage = "offheap".equals(backend) ? new OffHeapStorage(capacity) : new Storage(capacity);
+        resident = new Order[Math.max(1, capacity / 2)];
+        for (int i = 0; i < resident.length; i++) {
+            resident[i] = Benchmarks.order("r" + i, "hot", 300);
+            storage.addOrder(resident[i]);
+        }
+    }
+
+    @Benchmark
+    public boolean addThenRemove() {
+        Order order = resident[next++ % resident.length];
+        storage.removeOrder(order.getId());
+        return storage.addOrder(order);
+    }
+
+    @Benchmark
+    public boolean pickupThenRestock() {
+        Order order = resident[next++ % resident.length];
+        boolean picked = storage.pickupOrder(order.getId(), discard);
+        storage.addOrder(order);
+        return picked;
+    }
+
+    @Benchmark
+    public boolean removeMissing() {
+        return storage.removeOrder("missing");
+    }
+}
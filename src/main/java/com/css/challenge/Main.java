@@ -1,10 +1,26 @@
 package com.css.challenge;
 
-import com.css.challenge.client.Action;
+import com.css.challenge.client.ActionLog;
 import com.css.challenge.client.Client;
 import com.css.challenge.client.Order;
-import com.css.challenge.client.Problem;
+import com.css.challenge.client.ProblemStream;
+import com.css.challenge.config.Config;
+import com.css.challenge.config.ConfigWatcher;
+import com.css.challenge.journal.Journal;
+import com.css.challenge.management.ExpirySweeper;
+import com.css.challenge.management.Harness;
+import com.css.challenge.management.IngressPipeline;
 import com.css.challenge.management.OrderManagementSystem;
+import com.css.challenge.management.PickupScheduler;
+import com.css.challenge.management.PlacementPolicy;
+import com.css.challenge.management.Simulation;
+import com.css.challenge.management.SingleWriterOrderManagementSystem;
+import com.css.challenge.management.Snapshotter;
+import com.css.challenge.metrics.MetricsReporter;
+import com.css.challenge.server.LocalProblemServer;
+import com.css.challenge.storage.PickupWindow;
+import com.css.challenge.trace.TraceEvent;
+import com.css.challenge.trace.Tracer;
 import org.apache.log4j.Level;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -13,31 +29,23 @@ import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
 
 import java.io.IOException;
-import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
-import java.time.temporal.ChronoUnit;
-import java.util.ArrayList;
 import java.util.Iterator;
-import java.util.List;
-import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
 @Command(name = "challenge", showDefaultValues = true)
 public class Main implements Runnable {
     private static final Logger LOGGER = LoggerFactory.getLogger(Main.class);
-    private static final Properties properties = new Properties();
 
     static {
         org.apache.log4j.Logger.getRootLogger().setLevel(Level.OFF);
         System.setProperty("java.util.logging.SimpleFormatter.format", "%1$tF %1$tT: %5$s %n");
-        try (InputStream input = Main.class.getClassLoader().getResourceAsStream("config.properties")) {
-            if (input == null) {
-                throw new RuntimeException("Configuration file not found!");
-            }
-            properties.load(input);
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
     }
 
     @Option(names = "--endpoint", description = "Problem server endpoint")
@@ -61,74 +69,163 @@ public class Main implements Runnable {
     @Option(names = "--max", description = "Maximum pickup time")
     Duration max = Duration.ofSeconds(8);
 
+    @Option(names = "--gzip", description = "Gzip the submitted solution")
+    boolean gzip = false;
+
+    @Option(names = "--config", description = "Configuration file, reloaded when it changes (defaults to the bundled config.properties)")
+    Path config;
+
+    @Option(names = "--stream", description = "Start placing orders while the problem is still being downloaded")
+    boolean stream = false;
+
+    @Option(names = "--orders", description = "Run offline on orders from a local JSON or NDJSON file instead of the endpoint")
+    Path ordersFile;
+
+    @Option(names = "--local", description = "Serve synthetic problems from an embedded local stand-in instead of --endpoint")
+    boolean local = false;
+
+    @Option(names = "--local-orders", description = "Number of orders per synthetic problem")
+    int localOrders = 1000;
+
+    @Option(names = "--local-mix", description = "Relative hot:cold:room weights of synthetic orders")
+    String localMix = "1:1:1";
+
+    @Option(names = "--local-freshness", description = "Freshness range of synthetic orders in seconds, as min:max")
+    String localFreshness = "30:300";
+
+    @Option(names = "--simulate", description = "Run a discrete-event simulation on a virtual clock instead of sleeping")
+    boolean simulate = false;
+
+    @Option(names = "--harness", description = "Give every order its own pickup task (a virtual thread on Java 21+) and wait for all pickups instead of total.runtime")
+    boolean harness = false;
+
+    @Option(names = "--ingress", description = "Queue orders in a bounded ingress pipeline (ingress.capacity, ingress.policy) placed by one consumer thread")
+    boolean ingress = false;
+
+    @Option(names = "--mode", description = "How the OMS serializes access to its storages: locking (per-storage locks) or single-writer (one thread applies every command)")
+    String mode = "locking";
+
+    @Option(names = "--journal", description = "Directory of a durable action journal; state from an earlier run is recovered first")
+    Path journalDirectory;
+
     @Override
     public void run() {
-        try {
+        try (ConfigWatcher watcher = config == null ? null : new ConfigWatcher(config);
+             LocalProblemServer server = local ? startLocalServer() : null) {
+            if (watcher != null) {
+                watcher.reload();
+                watcher.start();
+            }
 
-            Client client = new Client(endpoint, auth);
-            Problem problem = client.newProblem(name, seed);
+            Client client = new Client(server != null ? server.getEndpoint() : endpoint, auth, gzip);
+            try (ProblemStream problem = fetchProblem(client)) {
+                Iterator<Order> orders = problem.getOrders();
 
-            // ------ Simulation harness logic goes here using rate, min and max ----
+                // ------ Simulation harness logic goes here using rate, min and max ----
 
-            long TOTAL_RUNTIME = Long.parseLong(get("total.runtime")); //Approx. time for application to finish processing all orders
+                if (simulate) {
+                    long simulationStart = System.currentTimeMillis();
+                    ActionLog actions = new ActionLog();
+                    new Simulation(rate, min, max, seed).run(orders, simulationStart * 1000, actions);
+                    LOGGER.info("Simulated "+actions.size()+" actions in "+(System.currentTimeMillis() - simulationStart)+" ms");
+                    submit(client, problem, actions);
+                    return;
+                }
 
-            OrderManagementSystem oms = new OrderManagementSystem();
-            List<Action> actions = new ArrayList<>();
-            List<Order> orders = new ArrayList<>();
+                if (harness) {
+                    long harnessStart = System.currentTimeMillis();
+                    ActionLog actions = new ActionLog();
+                    OrderManagementSystem oms = newOrderManagementSystem(null);
+                    oms.setPickupWindow(new PickupWindow(min, max));
+                    oms.setPlacementPolicy(PlacementPolicy.of(Config.get(), min, max));
+                    long placed = new Harness(oms, actions, rate, min, max, seed).run(orders);
+                    stop(oms);
+                    LOGGER.info("Harness placed "+placed+" orders and ran "+actions.size()+" actions in "+(System.currentTimeMillis() - harnessStart)+" ms"
+                            +(Harness.hasVirtualThreads() ? " on virtual threads" : ""));
+                    submit(client, problem, actions);
+                    return;
+                }
 
-            long startTime = System.currentTimeMillis(); // Maintaining start time
+                long TOTAL_RUNTIME = Config.get().getTotalRuntime(); //Approx. time for application to finish processing all orders
 
-            Thread orderPlacer = new Thread(()->{
-                for(int i = 1; i <= problem.getOrders().size(); i++){
-                    Order order = problem.getOrders().get(i-1);
-                    LOGGER.info("Received: {}", order);
-                    order.setTimestamp(Instant.now());
-                    oms.placeOrder(order, actions);
-                    synchronized (orders){
-                        orders.add(order);
-                    }
-                    try {
-                        Thread.sleep(rate.toMillis());
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                    }
+                Journal journal = journalDirectory == null ? null : new Journal(journalDirectory,
+                        Config.get().getJournalSegmentSize(), Config.get().getJournalFlushInterval());
+                OrderManagementSystem oms = newOrderManagementSystem(journal);
+                oms.setPickupWindow(new PickupWindow(min, max));
+                oms.setPlacementPolicy(PlacementPolicy.of(Config.get(), min, max));
+                Config.addListener(oms::resize);
+                ActionLog actions = new ActionLog();
+                Snapshotter snapshotter = null;
+                if (journal != null) {
+                    long recovered = oms.recover(journalDirectory, actions);
+                    LOGGER.info("Recovered "+recovered+" journaled actions from "+journalDirectory+": "+oms.getMetrics());
+                    snapshotter = new Snapshotter(oms, journalDirectory, Duration.ofMillis(Config.get().getSnapshotInterval()));
+                    snapshotter.start();
+                }
+                ExpirySweeper sweeper = null;
+                if (Config.get().isExpirySweep()) {
+                    sweeper = new ExpirySweeper(oms, actions);
+                    sweeper.start();
                 }
-            });
+                PickupScheduler pickups = new PickupScheduler(oms, actions);
+                IngressPipeline pipeline = !ingress ? null : new IngressPipeline(oms, actions, Config.get().getIngressCapacity(),
+                        IngressPipeline.OverflowPolicy.of(Config.get().getIngressPolicy()), order -> pickups.schedule(order, pickupDelay()));
+                MetricsReporter metrics = new MetricsReporter(oms.getMetrics(), Duration.ofMillis(Config.get().getMetricsInterval()));
+                if (pipeline != null) {
+                    metrics.setIngress(pipeline.getMetrics());
+                    pipeline.start();
+                }
+                metrics.start();
+
+                long startTime = System.currentTimeMillis(); // Maintaining start time
 
-            Thread orderPickUp = new Thread(()->{
-                while (System.currentTimeMillis() - startTime < TOTAL_RUNTIME){
+                AtomicLong placed = new AtomicLong();
+                Iterator<Order> interned = oms.getOrderTable().intern(orders);
+                Thread orderPlacer = new Thread(()->{
                     try {
-                        Thread.sleep(Long.parseLong(get("thread.pause"))); // Small delay to reduce CPU usage
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                    }
-                    synchronized (orders){
-                        Iterator<Order> orderIterator = orders.iterator();
-                        while (orderIterator.hasNext()){
-                            Order order = orderIterator.next();
-                            long currentTime = ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now());
-                            long elapsed = (currentTime - order.getTimestamp())/Long.parseLong(get("epoch.to.seconds")); //converting into Seconds
-                            if(elapsed >= min.toSeconds() && elapsed <= max.toSeconds()){
-                                oms.pickupOrder(order, actions);
-                                orderIterator.remove();
-                            }else if (elapsed > max.toMillis()) {
-                                orderIterator.remove();
+                        while (interned.hasNext() && !Thread.currentThread().isInterrupted()){
+                            Order order = interned.next();
+                            Tracer.trace(TraceEvent.RECEIVED, order.getId(), order.getTemp());
+                            order.setTimestamp(Instant.now());
+                            if (pipeline == null) {
+                                oms.placeOrder(order, actions);
+                                pickups.schedule(order, pickupDelay());
+                                placed.incrementAndGet();
+                            } else if (enqueue(pipeline, order)) {
+                                placed.incrementAndGet(); // its pickup is scheduled once the pipeline has placed it
                             }
+                            LockSupport.parkNanos(rate.toNanos()); // sub-millisecond rates are honoured, unlike Thread.sleep
                         }
+                    } finally {
+                        if (pipeline != null) {
+                            pipeline.close(); // joins the consumer; pickups are scheduled as orders are placed
+                        }
+                        pickups.shutdown();
                     }
-                }
-            });
+                });
 
-            orderPlacer.start();
-            orderPickUp.start();
+                pickups.start();
+                orderPlacer.start();
 
-            orderPlacer.join();
-            orderPickUp.join();
+                // Nothing may reach the OMS once the journal closes below: the placer has closed the pipeline, joining
+                // its consumer, and awaitTermination returns only after the pickup worker has exited.
+                orderPlacer.join();
+                pickups.awaitTermination(TOTAL_RUNTIME - (System.currentTimeMillis() - startTime), TimeUnit.MILLISECONDS);
 
-            LOGGER.info("Total time to all orders "+(System.currentTimeMillis() - startTime));
+                long elapsed = Math.max(1, System.currentTimeMillis() - startTime);
+                LOGGER.info("Total time to all orders "+elapsed+" ms, "+placed.get()+" orders placed ("+(placed.get() * 1000 / elapsed)+" orders/sec)");
+                metrics.close();
+                stop(oms);
+                if (sweeper != null) {
+                    sweeper.close();
+                }
+                if (journal != null) {
+                    snapshotter.close();
+                    journal.close();
+                }
 
-            String result = client.solveProblem(problem.getTestId(), rate, min, max, actions);
-            LOGGER.info("Result: {}", result);
+                submit(client, problem, actions);
+            }
 
         } catch (IOException | InterruptedException e) {
             LOGGER.error("Simulation failed: {}", e.getMessage());
@@ -137,9 +234,74 @@ public class Main implements Runnable {
 
     }
 
-    // Method to get a property value
-    public static String get(String key) {
-        return properties.getProperty(key);
+    private LocalProblemServer startLocalServer() throws IOException {
+        String[] mix = localMix.split(":");
+        String[] freshness = localFreshness.split(":");
+        if (mix.length != 3 || freshness.length != 2) {
+            throw new CommandLine.ParameterException(new CommandLine(this),
+                    "Expected --local-mix=hot:cold:room and --local-freshness=min:max");
+        }
+        LocalProblemServer server = new LocalProblemServer(0, new LocalProblemServer.Settings(localOrders,
+                Double.parseDouble(mix[0]), Double.parseDouble(mix[1]), Double.parseDouble(mix[2]),
+                Integer.parseInt(freshness[0]), Integer.parseInt(freshness[1])));
+        server.start();
+        return server;
+    }
+
+    private ProblemStream fetchProblem(Client client) throws IOException {
+        if (ordersFile != null) {
+            return ProblemStream.open(ordersFile);
+        }
+        if (stream) {
+            return client.streamProblem(name, seed);
+        }
+        return ProblemStream.of(client.newProblem(name, seed));
+    }
+
+    private void submit(Client client, ProblemStream problem, ActionLog actions) throws IOException {
+        if (problem.getTestId() == null) {
+            LOGGER.info("Offline run recorded "+actions.size()+" actions, nothing to submit");
+            return;
+        }
+        String result = client.solveProblem(problem.getTestId(), rate, min, max, actions);
+        LOGGER.info("Result: {}", result);
+    }
+
+    /** Builds the order management system selected by --mode. */
+    private OrderManagementSystem newOrderManagementSystem(Journal journal) {
+        switch (mode) {
+            case "locking":
+                return new OrderManagementSystem(Clock.systemUTC(), journal);
+            case "single-writer":
+                return new SingleWriterOrderManagementSystem(Clock.systemUTC(), journal,
+                        SingleWriterOrderManagementSystem.DEFAULT_RING_SIZE);
+            default:
+                throw new CommandLine.ParameterException(new CommandLine(this),
+                        "--mode must be locking or single-writer: " + mode);
+        }
+    }
+
+    /** Stops the writer thread of a single-writer system once its last command has been applied. */
+    private static void stop(OrderManagementSystem oms) {
+        if (oms instanceof SingleWriterOrderManagementSystem) {
+            ((SingleWriterOrderManagementSystem) oms).close();
+        }
+    }
+
+    /** Queues the order for placement, giving up if the thread is interrupted while the ingress queue is full. */
+    private static boolean enqueue(IngressPipeline pipeline, Order order) {
+        try {
+            return pipeline.submit(order);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /** Random pickup delay in [min, max). */
+    private Duration pickupDelay() {
+        long spread = max.toNanos() - min.toNanos();
+        return spread > 0 ? min.plusNanos(ThreadLocalRandom.current().nextLong(spread)) : min;
     }
 
     public static void main(String[] args) {
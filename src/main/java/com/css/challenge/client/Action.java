@@ -7,6 +7,12 @@ public class Action {
   public static final String PICKUP = "pickup";
   public static final String DISCARD = "discard";
 
+  // Compact codes used by ActionSink and ActionLog; 0 is reserved for "not written yet".
+  public static final byte PLACE_CODE = 1;
+  public static final byte MOVE_CODE = 2;
+  public static final byte PICKUP_CODE = 3;
+  public static final byte DISCARD_CODE = 4;
+
   private final long timestamp; // unix timestamp in microseconds
   private final String id; // order id
   private String action; // place, move, pickup or discard
@@ -33,6 +39,22 @@ public class Action {
     this.action = action;
   }
 
+  /** Returns the action name for a compact action code. */
+  public static String name(byte code) {
+    switch (code) {
+      case PLACE_CODE:
+        return PLACE;
+      case MOVE_CODE:
+        return MOVE;
+      case PICKUP_CODE:
+        return PICKUP;
+      case DISCARD_CODE:
+        return DISCARD;
+      default:
+        throw new IllegalArgumentException("Unknown action code: " + code);
+    }
+  }
+
   @Override
   public String toString() {
     return "{timestamp: " + timestamp + ", id: " + id + ", action: " + action + " }";
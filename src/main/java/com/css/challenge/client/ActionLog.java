@@ -0,0 +1,189 @@
+package com.css.challenge.client;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * ActionLog is a lock-free, multi-producer, append-only log of actions stored as primitive columns (timestamp,
+ * interned order id, action code) in fixed-size chunks. Appending claims a slot with one atomic increment and never
+ * copies earlier entries; the action code is written last with release semantics and marks the slot as published.
+ * Readers walk the log through a {@link Cursor} without materializing Action objects, and it serializes to the same
+ * JSON array as a {@code List<Action>}.
+ */
+@JsonSerialize(using = ActionLog.Serializer.class)
+public class ActionLog implements ActionSink {
+  private static final int CHUNK_SHIFT = 14;
+  private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+  private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+  private static final VarHandle CODES = MethodHandles.arrayElementVarHandle(byte[].class);
+
+  private static final class Chunk {
+    final long[] timestamps = new long[CHUNK_SIZE];
+    final int[] ids = new int[CHUNK_SIZE];
+    final byte[] codes = new byte[CHUNK_SIZE];
+  }
+
+  private final AtomicLong next = new AtomicLong();
+  private volatile AtomicReferenceArray<Chunk> chunks = new AtomicReferenceArray<>(16);
+  private final ConcurrentHashMap<String, Integer> handles = new ConcurrentHashMap<>();
+  private volatile AtomicReferenceArray<String> ids = new AtomicReferenceArray<>(1024);
+  private int idCount; // guarded by handles
+
+  @Override
+  public void append(long timestamp, String id, byte action) {
+    long index = next.getAndIncrement();
+    Chunk chunk = chunk((int) (index >>> CHUNK_SHIFT));
+    int slot = (int) index & CHUNK_MASK;
+    chunk.timestamps[slot] = timestamp;
+    chunk.ids[slot] = intern(id);
+    CODES.setRelease(chunk.codes, slot, action);
+  }
+
+  /** Number of slots claimed so far; slots still being written are not visible to cursors yet. */
+  public long size() {
+    return next.get();
+  }
+
+  /** Returns a cursor over the published prefix of the log. */
+  public Cursor cursor() {
+    return new Cursor(next.get());
+  }
+
+  /** Materializes the log as Action objects, e.g. for tests and debugging. */
+  public List<Action> toList() {
+    List<Action> actions = new ArrayList<>();
+    Cursor cursor = cursor();
+    while (cursor.next()) {
+      actions.add(new Action(cursor.timestamp(), cursor.id(), cursor.action()));
+    }
+    return actions;
+  }
+
+  private Chunk chunk(int index) {
+    AtomicReferenceArray<Chunk> directory = chunks;
+    if (index < directory.length()) {
+      Chunk chunk = directory.get(index);
+      if (chunk != null) {
+        return chunk;
+      }
+    }
+    return addChunk(index);
+  }
+
+  private synchronized Chunk addChunk(int index) {
+    AtomicReferenceArray<Chunk> directory = chunks;
+    if (index >= directory.length()) {
+      directory = copyOf(directory, Math.max(directory.length() * 2, index + 1));
+      chunks = directory;
+    }
+    Chunk chunk = directory.get(index);
+    if (chunk == null) {
+      chunk = new Chunk();
+      directory.set(index, chunk);
+    }
+    return chunk;
+  }
+
+  private int intern(String id) {
+    Integer handle = handles.get(id);
+    if (handle != null) {
+      return handle;
+    }
+    synchronized (handles) {
+      handle = handles.get(id);
+      if (handle == null) {
+        handle = idCount++;
+        AtomicReferenceArray<String> names = ids;
+        if (handle >= names.length()) {
+          names = copyOf(names, names.length() * 2);
+        }
+        names.set(handle, id);
+        ids = names;
+        handles.put(id, handle);
+      }
+      return handle;
+    }
+  }
+
+  private static <T> AtomicReferenceArray<T> copyOf(AtomicReferenceArray<T> array, int length) {
+    AtomicReferenceArray<T> copy = new AtomicReferenceArray<>(length);
+    for (int i = 0; i < array.length(); i++) {
+      copy.set(i, array.get(i));
+    }
+    return copy;
+  }
+
+  /** Cursor is a zero-copy, forward-only view over the log that stops at the first unpublished slot. */
+  public final class Cursor {
+    private final long limit;
+    private long index = -1;
+    private Chunk chunk;
+    private int slot;
+    private byte code;
+
+    private Cursor(long limit) {
+      this.limit = limit;
+    }
+
+    public boolean next() {
+      long candidate = index + 1;
+      if (candidate >= limit) {
+        return false;
+      }
+      Chunk candidateChunk = chunk((int) (candidate >>> CHUNK_SHIFT));
+      int candidateSlot = (int) candidate & CHUNK_MASK;
+      byte candidateCode = (byte) CODES.getAcquire(candidateChunk.codes, candidateSlot);
+      if (candidateCode == 0) {
+        return false;
+      }
+      index = candidate;
+      chunk = candidateChunk;
+      slot = candidateSlot;
+      code = candidateCode;
+      return true;
+    }
+
+    public long timestamp() {
+      return chunk.timestamps[slot];
+    }
+
+    public String id() {
+      return ids.get(chunk.ids[slot]);
+    }
+
+    public byte code() {
+      return code;
+    }
+
+    public String action() {
+      return Action.name(code);
+    }
+  }
+
+  static class Serializer extends JsonSerializer<ActionLog> {
+    @Override
+    public void serialize(ActionLog log, JsonGenerator generator, SerializerProvider provider)
+        throws IOException {
+      generator.writeStartArray();
+      Cursor cursor = log.cursor();
+      while (cursor.next()) {
+        generator.writeStartObject();
+        generator.writeNumberField("timestamp", cursor.timestamp());
+        generator.writeStringField("id", cursor.id());
+        generator.writeStringField("action", cursor.action());
+        generator.writeEndObject();
+      }
+      generator.writeEndArray();
+    }
+  }
+}
@@ -0,0 +1,17 @@
+package com.css.challenge.client;
+
+import java.util.List;
+
+/**
+ * ActionSink receives actions as primitive fields, so producers do not allocate an Action per event. Action codes
+ * are the Action.*_CODE constants.
+ */
+@FunctionalInterface
+public interface ActionSink {
+  void append(long timestamp, String id, byte action);
+
+  /** Adapts a list of actions, materializing one Action per event. */
+  static ActionSink of(List<Action> actions) {
+    return (timestamp, id, action) -> actions.add(new Action(timestamp, id, Action.name(action)));
+  }
+}
@@ -1,15 +1,17 @@
 package com.css.challenge.client;
 
-import static simplehttp.HeaderList.headers;
-import static simplehttp.HeaderPair.header;
-
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonGenerator;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import simplehttp.*;
@@ -18,14 +20,23 @@ import simplehttp.*;
 public class Client {
   private static final Logger LOGGER = LoggerFactory.getLogger(Client.class);
 
+  private static final int CHUNK_SIZE = 64 * 1024;
+
   private final String endpoint;
   private final String auth;
   private final HttpClient client;
+  private final boolean gzip;
 
   public Client(String endpoint, String auth) {
+    this(endpoint, auth, false);
+  }
+
+  /** Creates a client that gzips solutions when gzip is set. */
+  public Client(String endpoint, String auth, boolean gzip) {
     this.endpoint = endpoint;
     this.auth = auth;
     this.client = HttpClients.anApacheClient();
+    this.gzip = gzip;
   }
 
   /**
@@ -50,6 +61,35 @@ public class Client {
     return new Problem(id, Order.parse(response.getContent().asString()));
   }
 
+  /**
+   * streamProblem fetches a new test problem and returns its orders as they are parsed from the
+   * response, so placement can start before the whole problem has been received.
+   */
+  public ProblemStream streamProblem(String name, long seed) throws IOException {
+    if (seed == 0) {
+      seed = new Random().nextLong();
+    }
+
+    URL url =
+        new URL(
+            endpoint + "/interview/challenge/new?auth=" + auth + "&name=" + name + "&seed=" + seed);
+    HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+    int status = connection.getResponseCode();
+    if (status < 200 || status >= 300) {
+      String message = connection.getResponseMessage();
+      connection.disconnect();
+      throw new IOException(url + ": " + message);
+    }
+    String id = connection.getHeaderField("x-test-id");
+
+    LOGGER.info("Streaming new test problem, id={}: {}", id, url);
+    OrderReader reader = new OrderReader(connection.getInputStream());
+    return new ProblemStream(id, reader, () -> {
+      reader.close();
+      connection.disconnect();
+    });
+  }
+
   private static class Options {
     public long rate;
     public long min;
@@ -64,15 +104,21 @@ public class Client {
 
   private static class Solution {
     public Options options;
-    public List<Action> actions;
+    public Object actions; // List<Action> or ActionLog, both serialize to the same JSON array
 
-    Solution(Options options, List<Action> actions) {
+    Solution(Options options, Object actions) {
       this.options = options;
       this.actions = actions;
     }
 
-    String encode() throws IOException {
-      return new ObjectMapper().writeValueAsString(this);
+    /**
+     * Streams the solution as JSON. Actions are written one by one by their serializer, so no
+     * intermediate String or byte[] of the whole payload is built.
+     */
+    void writeTo(OutputStream out) throws IOException {
+      try (JsonGenerator generator = Json.MAPPER.getFactory().createGenerator(out)) {
+        generator.writeObject(this);
+      }
     }
   }
 
@@ -83,18 +129,45 @@ public class Client {
   public String solveProblem(
           String testId, Duration rate, Duration min, Duration max, List<Action> actions)
           throws IOException {
-    Solution solution = new Solution(new Options(rate, min, max), actions);
+    return solve(testId, new Solution(new Options(rate, min, max), actions));
+  }
 
+  /** solveProblem submits the actions recorded in an action log without materializing them. */
+  public String solveProblem(
+          String testId, Duration rate, Duration min, Duration max, ActionLog actions)
+          throws IOException {
+    return solve(testId, new Solution(new Options(rate, min, max), actions));
+  }
+
+  /**
+   * Posts the solution with chunked transfer encoding, encoding it straight into the request body
+   * (optionally gzipped), so peak memory does not grow with the number of actions.
+   */
+  private String solve(String testId, Solution solution) throws IOException {
     URL url = new URL(endpoint + "/interview/challenge/solve?auth=" + auth);
-    HttpResponse response =
-            client.post(
-                    url,
-                    new UnencodedStringMessage(
-                            solution.encode(),
-                            headers(header("Content-Type", "application/json"), header("x-test-id", testId))));
-    if (!response.ok()) {
-      throw new IOException(url + ": " + response.getStatusMessage());
+    HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+    try {
+      connection.setRequestMethod("POST");
+      connection.setDoOutput(true);
+      connection.setChunkedStreamingMode(CHUNK_SIZE);
+      connection.setRequestProperty("Content-Type", "application/json");
+      connection.setRequestProperty("x-test-id", testId);
+      if (gzip) {
+        connection.setRequestProperty("Content-Encoding", "gzip");
+      }
+      try (OutputStream body = connection.getOutputStream();
+          OutputStream out = gzip ? new GZIPOutputStream(body, CHUNK_SIZE) : body) {
+        solution.writeTo(out);
+      }
+      int status = connection.getResponseCode();
+      if (status < 200 || status >= 300) {
+        throw new IOException(url + ": " + connection.getResponseMessage());
+      }
+      try (InputStream in = connection.getInputStream()) {
+        return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+      }
+    } finally {
+      connection.disconnect();
     }
-    return response.getContent().asString();
   }
 }
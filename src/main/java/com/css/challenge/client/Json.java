@@ -0,0 +1,10 @@
+package com.css.challenge.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/** Json holds the ObjectMapper shared by the client package; it is thread-safe once configured. */
+final class Json {
+  static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private Json() {}
+}
@@ -1,43 +1,61 @@
 package com.css.challenge.client;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
 
-/** Order is a json-friendly representation of an order. */
+/**
+ * Order is a json-friendly representation of an order. The temperature is parsed into a {@link Temperature} once, so
+ * the hot path switches on an enum instead of comparing strings; the JSON shape is unchanged.
+ */
 public class Order {
   private final String id; // order id
   private final String name; // food name
-  private final String temp; // ideal temperature
+  private final Temperature temperature; // ideal temperature
   private int freshness; // freshness in seconds
   private long timestamp; // Timestamp when order is placed
+  private long deadline; // unix timestamp in microseconds when the order is no longer fresh
+  private int handle = -1; // dense handle into the OrderTable the order was interned in, -1 until then
 
   public Order(
       @JsonProperty("id") String id,
       @JsonProperty("name") String name,
       @JsonProperty("temp") String temp,
       @JsonProperty("freshness") int freshness) {
+    this(id, name, Temperature.of(temp), freshness);
+  }
+
+  public Order(String id, String name, Temperature temperature, int freshness) {
     this.id = id;
     this.name = name;
-    this.temp = temp;
+    this.temperature = temperature;
     this.freshness = freshness;
   }
 
   static List<Order> parse(String json) throws JsonProcessingException {
-    return new ObjectMapper().readValue(json, new TypeReference<List<Order>>() {});
+    return Json.MAPPER.readValue(json, new TypeReference<List<Order>>() {});
   }
 
   public String getId() {
     return id;
   }
 
+  public String getName() {
+    return name;
+  }
+
   public String getTemp() {
-    return temp;
+    return temperature.getName();
+  }
+
+  @JsonIgnore
+  public Temperature getTemperature() {
+    return temperature;
   }
 
   public int getFreshness() {
@@ -48,6 +66,10 @@ public class Order {
     return timestamp;
   }
 
+  public long getDeadline() {
+    return deadline;
+  }
+
   public void setFreshness(int freshness) {
     this.freshness = freshness;
   }
@@ -56,8 +78,26 @@ public class Order {
     this.timestamp = ChronoUnit.MICROS.between(Instant.EPOCH, timestamp);
   }
 
+  /** Sets the placement time as a unix timestamp in microseconds. */
+  public void setTimestamp(long timestamp) {
+    this.timestamp = timestamp;
+  }
+
+  public void setDeadline(long deadline) {
+    this.deadline = deadline;
+  }
+
+  @JsonIgnore
+  public int getHandle() {
+    return handle;
+  }
+
+  public void setHandle(int handle) {
+    this.handle = handle;
+  }
+
   @Override
   public String toString() {
-    return "{id: " + id + ", name: " + name + ", temp: " + temp + ", freshness:" + freshness + " }";
+    return "{id: " + id + ", name: " + name + ", temp: " + getTemp() + ", freshness:" + freshness + " }";
   }
 }
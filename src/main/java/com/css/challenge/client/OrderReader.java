@@ -0,0 +1,81 @@
+package com.css.challenge.client;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * OrderReader parses orders one at a time from a stream with Jackson's token API, so each order can be placed as
+ * soon as it has been read instead of after the whole problem is bound into a list. It accepts a JSON array of
+ * orders (the problem server format) as well as newline-delimited or concatenated order objects. At most one parsed
+ * order is buffered, so memory does not depend on the size of the input.
+ */
+public class OrderReader implements Iterator<Order>, Closeable {
+  private final JsonParser parser;
+  private boolean started;
+  private boolean done;
+  private Order next;
+
+  public OrderReader(InputStream in) throws IOException {
+    this.parser = Json.MAPPER.getFactory().createParser(in);
+  }
+
+  /** Opens a local JSON or NDJSON file of orders, e.g. for offline runs. */
+  public static OrderReader open(Path file) throws IOException {
+    return new OrderReader(Files.newInputStream(file));
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (next != null) {
+      return true;
+    }
+    if (done) {
+      return false;
+    }
+    try {
+      JsonToken token = parser.nextToken();
+      if (!started) {
+        started = true;
+        if (token == JsonToken.START_ARRAY) {
+          token = parser.nextToken();
+        }
+      }
+      if (token == JsonToken.START_OBJECT) {
+        next = Json.MAPPER.readValue(parser, Order.class);
+        return true;
+      }
+      if (token != null && token != JsonToken.END_ARRAY) {
+        throw new IOException("Expected an order object but found " + token + " at " + parser.getCurrentLocation());
+      }
+      done = true;
+      close();
+      return false;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public Order next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    Order order = next;
+    next = null;
+    return order;
+  }
+
+  @Override
+  public void close() throws IOException {
+    done = true;
+    parser.close();
+  }
+}
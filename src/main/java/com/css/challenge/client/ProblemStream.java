@@ -0,0 +1,48 @@
+package com.css.challenge.client;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+
+/**
+ * ProblemStream is a test problem whose orders are delivered incrementally, in arrival order. Offline problems
+ * read from a local file have no test id and cannot be submitted.
+ */
+public class ProblemStream implements Closeable {
+  private final String testId;
+  private final Iterator<Order> orders;
+  private final Closeable source;
+
+  public ProblemStream(String testId, Iterator<Order> orders, Closeable source) {
+    this.testId = testId;
+    this.orders = orders;
+    this.source = source;
+  }
+
+  /** Wraps a fully fetched problem. */
+  public static ProblemStream of(Problem problem) {
+    return new ProblemStream(problem.getTestId(), problem.getOrders().iterator(), null);
+  }
+
+  /** Streams orders from a local JSON array or NDJSON file. */
+  public static ProblemStream open(Path file) throws IOException {
+    OrderReader reader = OrderReader.open(file);
+    return new ProblemStream(null, reader, reader);
+  }
+
+  public String getTestId() {
+    return testId;
+  }
+
+  public Iterator<Order> getOrders() {
+    return orders;
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (source != null) {
+      source.close();
+    }
+  }
+}
@@ -0,0 +1,30 @@
+package com.css.challenge.client;
+
+/** Temperature is the ideal storage temperature of an order. Anything other than hot or cold is kept at room. */
+public enum Temperature {
+  HOT("hot"),
+  COLD("cold"),
+  ROOM("room");
+
+  private final String name;
+
+  Temperature(String name) {
+    this.name = name;
+  }
+
+  /** Name used in the problem JSON. */
+  public String getName() {
+    return name;
+  }
+
+  /** Parses a JSON temperature, ignoring case. */
+  public static Temperature of(String name) {
+    if (HOT.name.equalsIgnoreCase(name)) {
+      return HOT;
+    }
+    if (COLD.name.equalsIgnoreCase(name)) {
+      return COLD;
+    }
+    return ROOM;
+  }
+}
@@ -0,0 +1,251 @@
+package com.css.challenge.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Config is an immutable, pre-parsed snapshot of config.properties. The current snapshot is swapped atomically, so
+ * hot paths read primitive fields from {@link #get()} without parsing, and a reload is seen by every thread at once.
+ */
+public final class Config {
+    private static final String RESOURCE = "config.properties";
+    private static final AtomicReference<Config> CURRENT = new AtomicReference<>(loadResource());
+    private static final List<Consumer<Config>> LISTENERS = new CopyOnWriteArrayList<>();
+
+    private final long microsPerSecond; // epoch.to.seconds
+    private final long threadPause; // thread.pause, milliseconds
+    private final long totalRuntime; // total.runtime, milliseconds
+    private final int coolerCapacity;
+    private final int heaterCapacity;
+    private final int shelfCapacity;
+    private final long metricsInterval; // metrics.interval, milliseconds
+    private final boolean traceEnabled;
+    private final long traceBuffer; // trace.buffer, events
+    private final boolean offHeapStorage; // storage.backend=offheap
+    private final int journalSegmentSize; // journal.segment.size, bytes
+    private final long journalFlushInterval; // journal.flush.interval, milliseconds
+    private final long snapshotInterval; // snapshot.interval, milliseconds
+    private final boolean lookaheadPlacement; // placement.policy=lookahead
+    private final boolean rebalanceEnabled; // rebalance.enabled
+    private final boolean expirySweep; // expiry.sweep
+    private final int ingressCapacity; // ingress.capacity, orders
+    private final String ingressPolicy; // ingress.policy: block, reject or shed
+
+    private Config(Properties properties) {
+        this.microsPerSecond = positiveLong(properties, "epoch.to.seconds", 1_000_000L);
+        this.threadPause = positiveLong(properties, "thread.pause", 1_000L);
+        this.totalRuntime = positiveLong(properties, "total.runtime", 30_000L);
+        this.coolerCapacity = (int) positiveLong(properties, "cooler.capacity", 6);
+        this.heaterCapacity = (int) positiveLong(properties, "heater.capacity", 6);
+        this.shelfCapacity = (int) positiveLong(properties, "shelf.capacity", 12);
+        this.metricsInterval = positiveLong(properties, "metrics.interval", 10_000L);
+        this.traceEnabled = Boolean.parseBoolean(properties.getProperty("trace.enabled", "true").trim());
+        this.traceBuffer = positiveLong(properties, "trace.buffer", 16_384L);
+        this.offHeapStorage = offHeap(properties.getProperty("storage.backend", "heap").trim());
+        this.journalSegmentSize = (int) Math.min(Integer.MAX_VALUE,
+                positiveLong(properties, "journal.segment.size", 64L * 1024 * 1024));
+        this.journalFlushInterval = positiveLong(properties, "journal.flush.interval", 2L);
+        this.snapshotInterval = positiveLong(properties, "snapshot.interval", 5_000L);
+        this.lookaheadPlacement = lookahead(properties.getProperty("placement.policy", "default").trim());
+        this.rebalanceEnabled = Boolean.parseBoolean(properties.getProperty("rebalance.enabled", "true").trim());
+        this.expirySweep = Boolean.parseBoolean(properties.getProperty("expiry.sweep", "false").trim());
+        this.ingressCapacity = (int) positiveLong(properties, "ingress.capacity", 1024);
+        this.ingressPolicy = ingressPolicy(properties.getProperty("ingress.policy", "block").trim());
+    }
+
+    /** Returns the current snapshot. */
+    public static Config get() {
+        return CURRENT.get();
+    }
+
+    /** Makes the given snapshot current and notifies listeners, e.g. so storages can be resized. */
+    public static void set(Config config) {
+        CURRENT.set(config);
+        for (Consumer<Config> listener : LISTENERS) {
+            listener.accept(config);
+        }
+    }
+
+    public static void addListener(Consumer<Config> listener) {
+        LISTENERS.add(listener);
+    }
+
+    public static void removeListener(Consumer<Config> listener) {
+        LISTENERS.remove(listener);
+    }
+
+    public static Config parse(Properties properties) {
+        return new Config(properties);
+    }
+
+    public static Config load(Path file) throws IOException {
+        try (InputStream input = Files.newInputStream(file)) {
+            return load(input);
+        }
+    }
+
+    public static Config load(InputStream input) throws IOException {
+        Properties properties = new Properties();
+        properties.load(input);
+        return parse(properties);
+    }
+
+    private static Config loadResource() {
+        try (InputStream input = Config.class.getClassLoader().getResourceAsStream(RESOURCE)) {
+            if (input == null) {
+                throw new IllegalStateException("Configuration file not found!");
+            }
+            return load(input);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read " + RESOURCE, e);
+        }
+    }
+
+    private static boolean offHeap(String backend) {
+        switch (backend) {
+            case "heap":
+                return false;
+            case "offheap":
+                return true;
+            default:
+                throw new IllegalArgumentException("storage.backend must be heap or offheap: " + backend);
+        }
+    }
+
+    private static boolean lookahead(String policy) {
+        switch (policy) {
+            case "default":
+                return false;
+            case "lookahead":
+                return true;
+            default:
+                throw new IllegalArgumentException("placement.policy must be default or lookahead: " + policy);
+        }
+    }
+
+    private static String ingressPolicy(String policy) {
+        switch (policy) {
+            case "block":
+            case "reject":
+            case "shed":
+                return policy;
+            default:
+                throw new IllegalArgumentException("ingress.policy must be block, reject or shed: " + policy);
+        }
+    }
+
+    private static long positiveLong(Properties properties, String key, long defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            long parsed = Long.parseLong(value.trim());
+            if (parsed <= 0) {
+                throw new IllegalArgumentException(key + " must be positive: " + value);
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(key + " is not a number: " + value, e);
+        }
+    }
+
+    public long getMicrosPerSecond() {
+        return microsPerSecond;
+    }
+
+    public long getThreadPause() {
+        return threadPause;
+    }
+
+    public long getTotalRuntime() {
+        return totalRuntime;
+    }
+
+    public int getCoolerCapacity() {
+        return coolerCapacity;
+    }
+
+    public int getHeaterCapacity() {
+        return heaterCapacity;
+    }
+
+    public int getShelfCapacity() {
+        return shelfCapacity;
+    }
+
+    public long getMetricsInterval() {
+        return metricsInterval;
+    }
+
+    public boolean isTraceEnabled() {
+        return traceEnabled;
+    }
+
+    public long getTraceBuffer() {
+        return traceBuffer;
+    }
+
+    /** Whether new storages keep the records indexing their orders outside the Java heap. */
+    public boolean isOffHeapStorage() {
+        return offHeapStorage;
+    }
+
+    public int getJournalSegmentSize() {
+        return journalSegmentSize;
+    }
+
+    public long getJournalFlushInterval() {
+        return journalFlushInterval;
+    }
+
+    public long getSnapshotInterval() {
+        return snapshotInterval;
+    }
+
+    /** Whether new systems resolve shelf overflow with the lookahead policy instead of the default one. */
+    public boolean isLookaheadPlacement() {
+        return lookaheadPlacement;
+    }
+
+    /** Whether a pickup that frees a cooler or heater slot pulls a matching order off the shelf into it. */
+    public boolean isRebalanceEnabled() {
+        return rebalanceEnabled;
+    }
+
+    /** Whether new systems track order expiries so expired orders can be discarded before anyone picks them up. */
+    public boolean isExpirySweep() {
+        return expirySweep;
+    }
+
+    public int getIngressCapacity() {
+        return ingressCapacity;
+    }
+
+    /** What an ingress queue does when it is full: block, reject or shed. */
+    public String getIngressPolicy() {
+        return ingressPolicy;
+    }
+
+    @Override
+    public String toString() {
+        return "{epoch.to.seconds: " + microsPerSecond + ", thread.pause: " + threadPause + ", total.runtime: " + totalRuntime
+                + ", cooler.capacity: " + coolerCapacity + ", heater.capacity: " + heaterCapacity
+                + ", shelf.capacity: " + shelfCapacity + ", metrics.interval: " + metricsInterval
+                + ", trace.enabled: " + traceEnabled + ", trace.buffer: " + traceBuffer
+                + ", storage.backend: " + (offHeapStorage ? "offheap" : "heap")
+                + ", journal.segment.size: " + journalSegmentSize + ", journal.flush.interval: " + journalFlushInterval
+                + ", snapshot.interval: " + snapshotInterval
+                + ", placement.policy: " + (lookaheadPlacement ? "lookahead" : "default")
+                + ", rebalance.enabled: " + rebalanceEnabled + ", expiry.sweep: " + expirySweep
+                + ", ingress.capacity: " + ingressCapacity + ", ingress.policy: " + ingressPolicy
+                + " }";
+    }
+}
@@ -0,0 +1,78 @@
+package com.css.challenge.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+
+/**
+ * ConfigWatcher reloads a configuration file whenever it changes on disk and swaps the new snapshot in with
+ * {@link Config#set(Config)}. A file that fails to parse is logged and the previous snapshot stays in effect.
+ */
+public class ConfigWatcher implements AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConfigWatcher.class);
+
+    private final Path file;
+    private final WatchService watchService;
+    private final Thread worker;
+
+    public ConfigWatcher(Path file) throws IOException {
+        this.file = file.toAbsolutePath();
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.file.getParent().register(watchService,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_CREATE);
+        this.worker = new Thread(this::run, "config-watcher");
+        this.worker.setDaemon(true);
+    }
+
+    public void start() {
+        worker.start();
+    }
+
+    /** Reads the file now and makes it the current configuration. */
+    public void reload() {
+        try {
+            Config config = Config.load(file);
+            Config.set(config);
+            LOGGER.info("Reloaded configuration {}: {}", file, config);
+        } catch (IOException | IllegalArgumentException e) {
+            LOGGER.error("Ignoring invalid configuration {}: {}", file, e.getMessage());
+        }
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    Object context = event.context();
+                    if (context instanceof Path && file.getFileName().equals(context)) {
+                        changed = true;
+                    }
+                }
+                if (changed) {
+                    reload();
+                }
+                if (!key.reset()) {
+                    return;
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+        worker.interrupt();
+    }
+}
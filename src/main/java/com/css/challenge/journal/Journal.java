@@ -0,0 +1,346 @@
+package com.css.challenge.journal;
+
+import com.css.challenge.client.Order;
+import com.css.challenge.client.Temperature;
+import com.css.challenge.storage.Location;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Journal is a durable, append-only log of the actions an OrderManagementSystem takes, written to memory-mapped
+ * segment files of a fixed size in one directory. Appending copies a small record into the mapped segment under a
+ * short lock, so it costs well under a microsecond. A flusher thread forces whatever has been appended to disk every
+ * flush interval (group commit): one fsync covers every append since the last one, and at most one interval of actions
+ * can be lost in a crash. {@link #sync()} waits until everything appended so far is durable.
+ *
+ * <p>Each record is a length, a CRC32C of the body, and the body: action timestamp, action code, location, temperature,
+ * freshness, placement timestamp, id and name. Reading stops at the first empty or corrupt record, so a record torn by
+ * a crash simply ends the journal; reopening truncates it and appends from there.
+ */
+public class Journal implements AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(Journal.class);
+
+    private static final String PREFIX = "journal-";
+    private static final String SUFFIX = ".log";
+    private static final int HEADER = 2 * Integer.BYTES;
+    private static final int FIXED_BODY = Long.BYTES + 3 + Integer.BYTES + Long.BYTES + 2 * Short.BYTES;
+    private static final Temperature[] TEMPERATURES = Temperature.values();
+    private static final Location[] LOCATIONS = Location.values();
+
+    /** Receives journal records in the order they were appended. */
+    @FunctionalInterface
+    public interface Visitor {
+        /**
+         * Called once per record. The order carries the id, name, temperature, freshness and placement timestamp it
+         * had when the action was taken; location is where a placed or moved order went, NONE for pickups and discards.
+         */
+        void visit(long timestamp, byte action, Location location, Order order);
+    }
+
+    private final Path directory;
+    private final int segmentSize;
+    private final long flushIntervalNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushed = lock.newCondition();
+    private final CRC32C crc = new CRC32C(); // guarded by lock
+    private final Thread flusher;
+
+    private long segmentNumber; // guarded by lock
+    private FileChannel channel; // guarded by lock
+    private MappedByteBuffer segment; // guarded by lock
+    private long appended; // bytes appended over the journal's lifetime, guarded by lock
+    private long durable; // bytes known to be on disk, guarded by lock
+    private int durablePosition; // position in the current segment up to which it has been forced, guarded by lock
+    private volatile boolean closed;
+
+    /**
+     * Opens the journal in the directory, creating it if needed. Existing records are kept for {@link #replay} and new
+     * records are appended after the last valid one.
+     */
+    public Journal(Path directory, int segmentSize, long flushIntervalMillis) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.segmentSize = segmentSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        List<Path> segments = segments(directory);
+        if (segments.isEmpty()) {
+            map(0);
+        } else {
+            Path last = segments.get(segments.size() - 1);
+            map(number(last));
+            int end = scan(segment, 0, null);
+            for (int i = end; i < segment.limit(); i++) { // drop a torn tail so it is never read after new records
+                segment.put(i, (byte) 0);
+            }
+            segment.position(end);
+            segment.force();
+            durablePosition = end;
+        }
+        flusher = new Thread(this::flushLoop, "journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /** Records an action taken on the order. Location is where a placed or moved order went. */
+    public void append(long timestamp, byte action, Location location, Order order) {
+        byte[] id = order.getId().getBytes(StandardCharsets.UTF_8);
+        byte[] name = order.getName() == null ? new byte[0] : order.getName().getBytes(StandardCharsets.UTF_8);
+        int body = FIXED_BODY + id.length + name.length;
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Journal is closed");
+            }
+            if (segment.remaining() < HEADER + body) {
+                roll(HEADER + body);
+            }
+            int start = segment.position();
+            segment.position(start + HEADER);
+            segment.putLong(timestamp);
+            segment.put(action);
+            segment.put((byte) location.ordinal());
+            segment.put((byte) order.getTemperature().ordinal());
+            segment.putInt(order.getFreshness());
+            segment.putLong(order.getTimestamp());
+            segment.putShort((short) id.length);
+            segment.put(id);
+            segment.putShort((short) name.length);
+            segment.put(name);
+            crc.reset();
+            crc.update(segment.slice(start + HEADER, body));
+            segment.putInt(start + Integer.BYTES, (int) crc.getValue());
+            segment.putInt(start, body); // a non-zero length marks the record as written
+            appended += HEADER + body;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Blocks until every record appended so far has been forced to disk. */
+    public void sync() throws InterruptedException {
+        lock.lock();
+        try {
+            long target = appended;
+            while (durable < target && !closed) {
+                flushed.await();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the position the next record will be appended at, as the segment number in the high 32 bits and the
+     * offset within it in the low 32 bits. Every record appended before this call lies before the position.
+     */
+    public long position() {
+        lock.lock();
+        try {
+            return segmentNumber << 32 | segment.position();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Deletes the segments that lie entirely before the given {@link #position()}; they are no longer needed. */
+    public void truncate(long position) throws IOException {
+        long before = position >>> 32;
+        for (Path file : segments(directory)) {
+            if (number(file) < before) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    /** Reads every record in the directory, oldest first. */
+    public static void replay(Path directory, Visitor visitor) throws IOException {
+        replay(directory, 0, visitor);
+    }
+
+    /** Reads the records at or after the given {@link #position()}, oldest first. */
+    public static void replay(Path directory, long from, Visitor visitor) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        long first = from >>> 32;
+        for (Path file : segments(directory)) {
+            long number = number(file);
+            if (number < first) {
+                continue;
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                segment.order(ByteOrder.LITTLE_ENDIAN);
+                scan(segment, number == first ? (int) from : 0, visitor);
+            }
+        }
+    }
+
+    /** Visits the valid records from the given offset of the segment and returns the position after the last one. */
+    private static int scan(MappedByteBuffer segment, int start, Visitor visitor) {
+        CRC32C check = new CRC32C();
+        int position = start;
+        while (position + HEADER + FIXED_BODY <= segment.limit()) {
+            int body = segment.getInt(position);
+            if (body < FIXED_BODY || position + HEADER + body > segment.limit()) {
+                break;
+            }
+            check.reset();
+            check.update(segment.slice(position + HEADER, body));
+            if ((int) check.getValue() != segment.getInt(position + Integer.BYTES)) {
+                LOGGER.warn("Journal record at " + position + " is corrupt, ignoring it and everything after it");
+                break;
+            }
+            if (visitor != null) {
+                read(segment, position + HEADER, visitor);
+            }
+            position += HEADER + body;
+        }
+        return position;
+    }
+
+    private static void read(MappedByteBuffer segment, int position, Visitor visitor) {
+        long timestamp = segment.getLong(position);
+        byte action = segment.get(position + 8);
+        Location location = LOCATIONS[segment.get(position + 9)];
+        Temperature temperature = TEMPERATURES[segment.get(position + 10)];
+        int freshness = segment.getInt(position + 11);
+        long placedAt = segment.getLong(position + 15);
+        int idLength = segment.getShort(position + 23);
+        String id = string(segment, position + 25, idLength);
+        int nameLength = segment.getShort(position + 25 + idLength);
+        String name = string(segment, position + 27 + idLength, nameLength);
+        Order order = new Order(id, name, temperature, freshness);
+        order.setTimestamp(placedAt);
+        visitor.visit(timestamp, action, location, order);
+    }
+
+    private static String string(MappedByteBuffer segment, int position, int length) {
+        byte[] bytes = new byte[length];
+        segment.get(position, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** Forces the full segment and starts the next one. Called with the lock held. */
+    private void roll(int recordSize) throws UncheckedIOException {
+        if (recordSize > segmentSize) {
+            throw new IllegalArgumentException("Journal record of " + recordSize + " bytes exceeds the segment size");
+        }
+        try {
+            segment.force();
+            durable = appended;
+            flushed.signalAll();
+            channel.close();
+            map(segmentNumber + 1);
+            durablePosition = 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not roll journal segment", e);
+        }
+    }
+
+    private void map(long number) throws IOException {
+        segmentNumber = number;
+        channel = FileChannel.open(directory.resolve(String.format("%s%020d%s", PREFIX, number, SUFFIX)),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        segment.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private void flushLoop() {
+        while (!closed) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(flushIntervalNanos);
+            } catch (InterruptedException e) {
+                return;
+            }
+            flush();
+        }
+    }
+
+    /** Group commit: forces everything appended since the last flush with a single msync. */
+    private void flush() {
+        MappedByteBuffer target;
+        int from;
+        int to;
+        long upTo;
+        lock.lock();
+        try {
+            if (durable == appended) {
+                return;
+            }
+            target = segment;
+            from = durablePosition;
+            to = segment.position();
+            upTo = appended;
+        } finally {
+            lock.unlock();
+        }
+        target.force(from, to - from);
+        lock.lock();
+        try {
+            if (target == segment) {
+                durablePosition = Math.max(durablePosition, to);
+            }
+            durable = Math.max(durable, upTo);
+            flushed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static List<Path> segments(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segments = new ArrayList<>();
+            files.filter(file -> {
+                String name = file.getFileName().toString();
+                return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+            }).sorted().forEach(segments::add);
+            return segments;
+        }
+    }
+
+    private static long number(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    /** Makes everything appended durable and stops the flusher. */
+    @Override
+    public void close() throws IOException {
+        flusher.interrupt();
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            segment.force();
+            durable = appended;
+            closed = true;
+            flushed.signalAll();
+            channel.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.css.challenge.journal;
+
+import com.css.challenge.client.Order;
+import com.css.challenge.client.Temperature;
+import com.css.challenge.storage.Location;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * Snapshot is a point-in-time copy of the orders held by each storage, together with the journal position it was
+ * taken at, so a restart loads the snapshot and replays only the journal records after it.
+ *
+ * <p>The file is a magic number and version, the journal position, then for each location its order count and orders
+ * (temperature, freshness, placement timestamp, id and name), followed by a CRC32C of everything before it, all
+ * little-endian. It is written to a temporary file, forced and renamed over the previous snapshot, so a crash while
+ * writing leaves the previous snapshot in place.
+ */
+public final class Snapshot {
+    public static final String FILE = "snapshot.bin";
+
+    private static final int MAGIC = 0x50414e53; // "SNAP"
+    private static final short VERSION = 1;
+    private static final int ORDER_FIXED = 1 + Integer.BYTES + Long.BYTES + 2 * Short.BYTES;
+    private static final Temperature[] TEMPERATURES = Temperature.values();
+    private static final Location[] LOCATIONS = Location.values();
+
+    private final long journalPosition;
+    private final Map<Location, List<Order>> orders;
+
+    public Snapshot(long journalPosition, Map<Location, List<Order>> orders) {
+        this.journalPosition = journalPosition;
+        this.orders = orders;
+    }
+
+    /** The {@link Journal#position()} at which the snapshot was taken; replay resumes from here. */
+    public long getJournalPosition() {
+        return journalPosition;
+    }
+
+    /** The orders that were held at the location, never null. */
+    public List<Order> getOrders(Location location) {
+        return orders.getOrDefault(location, List.of());
+    }
+
+    public int size() {
+        int size = 0;
+        for (List<Order> held : orders.values()) {
+            size += held.size();
+        }
+        return size;
+    }
+
+    /** Writes the snapshot to the file, atomically replacing any previous one. */
+    public void write(Path file) throws IOException {
+        List<byte[]> strings = new ArrayList<>();
+        int size = Integer.BYTES + Short.BYTES + Long.BYTES + Byte.BYTES;
+        for (List<Order> held : orders.values()) {
+            size += Byte.BYTES + Integer.BYTES;
+            for (Order order : held) {
+                byte[] id = order.getId().getBytes(StandardCharsets.UTF_8);
+                byte[] name = order.getName() == null ? new byte[0] : order.getName().getBytes(StandardCharsets.UTF_8);
+                strings.add(id);
+                strings.add(name);
+                size += ORDER_FIXED + id.length + name.length;
+            }
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size + Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putShort(VERSION).putLong(journalPosition).put((byte) orders.size());
+        int string = 0;
+        for (Map.Entry<Location, List<Order>> held : orders.entrySet()) {
+            buffer.put((byte) held.getKey().ordinal()).putInt(held.getValue().size());
+            for (Order order : held.getValue()) {
+                byte[] id = strings.get(string++);
+                byte[] name = strings.get(string++);
+                buffer.put((byte) order.getTemperature().ordinal());
+                buffer.putInt(order.getFreshness());
+                buffer.putLong(order.getTimestamp());
+                buffer.putShort((short) id.length).put(id);
+                buffer.putShort((short) name.length).put(name);
+            }
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), 0, size);
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /** Reads the snapshot in the file, or returns null if there is none. */
+    public static Snapshot read(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+        int end = buffer.limit() - Integer.BYTES;
+        if (end < 0 || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a snapshot: " + file);
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), 0, end);
+        if ((int) crc.getValue() != buffer.getInt(end)) {
+            throw new IOException("Snapshot is corrupt: " + file);
+        }
+        buffer.position(Integer.BYTES);
+        short version = buffer.getShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported snapshot version " + version + ": " + file);
+        }
+        long journalPosition = buffer.getLong();
+        int locations = buffer.get();
+        Map<Location, List<Order>> orders = new EnumMap<>(Location.class);
+        for (int i = 0; i < locations; i++) {
+            Location location = LOCATIONS[buffer.get()];
+            int count = buffer.getInt();
+            List<Order> held = new ArrayList<>(count);
+            for (int j = 0; j < count; j++) {
+                Temperature temperature = TEMPERATURES[buffer.get()];
+                int freshness = buffer.getInt();
+                long placedAt = buffer.getLong();
+                String id = string(buffer);
+                String name = string(buffer);
+                Order order = new Order(id, name, temperature, freshness);
+                order.setTimestamp(placedAt);
+                held.add(order);
+            }
+            orders.put(location, held);
+        }
+        return new Snapshot(journalPosition, orders);
+    }
+
+    private static String string(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,155 @@
+package com.css.challenge.management;
+
+import com.css.challenge.client.Action;
+import com.css.challenge.client.ActionSink;
+import com.css.challenge.client.Order;
+import com.css.challenge.storage.Location;
+import com.css.challenge.storage.OrderTable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AsyncOrderManagementSystem is a non-blocking facade over an {@link OrderManagementSystem}. Calls enqueue the
+ * request on a lock-free queue and return a future at once; a single drain task on the executor applies queued
+ * requests in arrival order. Caller threads never touch a storage lock, and because only one drain runs at a time
+ * the requests never contend with each other, so latency under a burst of callers grows with queue depth rather
+ * than with lock convoys.
+ *
+ * <p>Futures are completed on the executor thread, so dependent stages that do real work should use the *Async
+ * variants of CompletableFuture to avoid delaying the requests queued behind them. Every action is also appended to
+ * the shared sink given at construction, in the order it was taken.
+ */
+public class AsyncOrderManagementSystem implements AutoCloseable {
+    /** Requests applied per drain task before it yields the executor thread to other work. */
+    private static final int DRAIN_LIMIT = 256;
+
+    private static final class Request {
+        final Order order;
+        final boolean pickup;
+        final CompletableFuture<PlacementResult> result = new CompletableFuture<>();
+
+        Request(Order order, boolean pickup) {
+            this.order = order;
+            this.pickup = pickup;
+        }
+    }
+
+    private final OrderManagementSystem oms;
+    private final ActionSink actions;
+    private final Executor executor;
+    private final ExecutorService ownedExecutor;
+    private final ConcurrentLinkedQueue<Request> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger(); // requests queued or being applied
+
+    /** Applies requests on a dedicated daemon thread, which is shut down by {@link #close()}. */
+    public AsyncOrderManagementSystem(OrderManagementSystem oms, ActionSink actions) {
+        this(oms, actions, Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "oms-async");
+            thread.setDaemon(true);
+            return thread;
+        }), true);
+    }
+
+    /** Applies requests on the given executor, which stays owned by the caller. */
+    public AsyncOrderManagementSystem(OrderManagementSystem oms, ActionSink actions, Executor executor) {
+        this(oms, actions, executor, false);
+    }
+
+    private AsyncOrderManagementSystem(OrderManagementSystem oms, ActionSink actions, Executor executor, boolean owned) {
+        this.oms = oms;
+        this.actions = actions;
+        this.executor = executor;
+        this.ownedExecutor = owned ? (ExecutorService) executor : null;
+    }
+
+    public CompletableFuture<PlacementResult> placeOrderAsync(Order order) {
+        return submit(new Request(order, false));
+    }
+
+    /** Completes with no actions and the order's current location if it is not ready for pickup yet. */
+    public CompletableFuture<PlacementResult> pickupOrderAsync(Order order) {
+        return submit(new Request(order, true));
+    }
+
+    /** Number of requests queued or being applied. */
+    public int getPending() {
+        return pending.get();
+    }
+
+    private CompletableFuture<PlacementResult> submit(Request request) {
+        queue.offer(request);
+        if (pending.getAndIncrement() == 0) {
+            schedule();
+        }
+        return request.result;
+    }
+
+    private void schedule() {
+        try {
+            executor.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            do {
+                queue.poll().result.completeExceptionally(e);
+            } while (pending.decrementAndGet() > 0);
+        }
+    }
+
+    /** Whoever moves pending off zero owns the queue until it drops back to zero, so only one drain runs at a time. */
+    private void drain() {
+        for (int applied = 1; ; applied++) {
+            apply(queue.poll());
+            if (pending.decrementAndGet() == 0) {
+                return;
+            }
+            if (applied % DRAIN_LIMIT == 0) {
+                try {
+                    executor.execute(this::drain);
+                    return;
+                } catch (RejectedExecutionException e) {
+                    // shutting down: finish the requests already queued on this thread
+                }
+            }
+        }
+    }
+
+    private void apply(Request request) {
+        Order order = request.order;
+        List<Action> produced = new ArrayList<>();
+        boolean[] gone = new boolean[1];
+        ActionSink sink = (timestamp, id, action) -> {
+            produced.add(new Action(timestamp, id, Action.name(action)));
+            actions.append(timestamp, id, action);
+            if (id.equals(order.getId()) && (action == Action.PICKUP_CODE || action == Action.DISCARD_CODE)) {
+                gone[0] = true;
+            }
+        };
+        try {
+            if (request.pickup) {
+                oms.pickupOrder(order, sink);
+            } else {
+                oms.placeOrder(order, sink);
+            }
+            OrderTable table = oms.getOrderTable();
+            Location location = gone[0] ? Location.NONE : table.location(table.handle(order));
+            request.result.complete(new PlacementResult(order.getId(), produced, location));
+        } catch (RuntimeException e) {
+            request.result.completeExceptionally(e);
+        }
+    }
+
+    /** Shuts down the executor if this facade created it. Requests already queued are still applied. */
+    @Override
+    public void close() {
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.css.challenge.management;
+
+import com.css.challenge.client.Order;
+import com.css.challenge.storage.Shelf;
+import com.css.challenge.storage.Storage;
+import com.css.challenge.trace.TraceEvent;
+import com.css.challenge.trace.Tracer;
+
+/**
+ * DefaultPlacementPolicy is the original overflow rule. If the heater has room, the least fresh hot shelf order moves
+ * there. Otherwise, if the cooler has room, the least fresh cold shelf order moves there. When the storage with room
+ * has no matching shelf order, or neither has room, the least fresh shelf order of any temperature is discarded.
+ * Every choice is the top of a shelf freshness heap, so deciding is O(1).
+ */
+public class DefaultPlacementPolicy implements PlacementPolicy {
+
+    @Override
+    public Eviction evict(Order incoming, Storage cooler, Storage heater, Shelf shelf, long now) {
+        String id = incoming == null ? "" : incoming.getId();
+        if (!heater.isFull()) {
+            Tracer.trace(TraceEvent.REBALANCING, id, "Heater");
+            Order hotOrder = shelf.getLeastFreshHotOrder();
+            if (hotOrder != null) {
+                return Eviction.move(hotOrder, heater);
+            }
+            Tracer.trace(TraceEvent.NOTHING_TO_MOVE, id, "hot");
+        } else if (!cooler.isFull()) {
+            Tracer.trace(TraceEvent.REBALANCING, id, "Cooler");
+            Order coldOrder = shelf.getLeastFreshColdOrder();
+            if (coldOrder != null) {
+                return Eviction.move(coldOrder, cooler);
+            }
+            Tracer.trace(TraceEvent.NOTHING_TO_MOVE, id, "cold");
+        } else {
+            Tracer.trace(TraceEvent.NO_ROOM, id, "Heater and cooler");
+        }
+        Order discardedOrder = shelf.getOrderToDiscard();
+        return discardedOrder == null ? null : Eviction.discard(discardedOrder);
+    }
+}
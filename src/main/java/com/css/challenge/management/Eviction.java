@@ -0,0 +1,36 @@
+package com.css.challenge.management;
+
+import com.css.challenge.client.Order;
+import com.css.challenge.storage.Storage;
+
+/** Eviction is a {@link PlacementPolicy} decision: move a shelf order to a storage with room, or discard it. */
+public final class Eviction {
+    private final Order order;
+    private final Storage target;
+
+    private Eviction(Order order, Storage target) {
+        this.order = order;
+        this.target = target;
+    }
+
+    public static Eviction move(Order order, Storage target) {
+        return new Eviction(order, target);
+    }
+
+    public static Eviction discard(Order order) {
+        return new Eviction(order, null);
+    }
+
+    public Order getOrder() {
+        return order;
+    }
+
+    /** Storage the order moves to, or null if it is discarded. */
+    public Storage getTarget() {
+        return target;
+    }
+
+    public boolean isMove() {
+        return target != null;
+    }
+}
@@ -0,0 +1,64 @@
+package com.css.challenge.management;
+
+import com.css.challenge.client.ActionSink;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ExpirySweeper discards expired orders from an OrderManagementSystem on a daemon thread, once per tick of its expiry
+ * wheel, so spoiled orders stop taking up slots as soon as they expire. Each sweep only touches the orders that have
+ * just come due. The system must have been created with {@code expiry.sweep=true}.
+ */
+public class ExpirySweeper implements AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExpirySweeper.class);
+
+    private final OrderManagementSystem oms;
+    private final ActionSink actions;
+    private final Duration interval;
+    private final ScheduledExecutorService executor;
+    private long discarded; // only touched by the executor thread
+
+    public ExpirySweeper(OrderManagementSystem oms, ActionSink actions) {
+        Duration interval = oms.getExpiryInterval();
+        if (interval == null) {
+            throw new IllegalStateException("Order management system does not track expiries, set expiry.sweep=true");
+        }
+        this.oms = oms;
+        this.actions = actions;
+        this.interval = interval;
+        this.executor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "expiry-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start() {
+        long period = interval.toNanos();
+        executor.scheduleWithFixedDelay(this::sweep, period, period, TimeUnit.NANOSECONDS);
+    }
+
+    private void sweep() {
+        try {
+            discarded += oms.expireOrders(actions);
+        } catch (RuntimeException e) {
+            LOGGER.warn("Expiry sweep failed: {}", e.getMessage()); // a thrown task would cancel every later sweep
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(interval.toMillis() + 1000, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        LOGGER.info("Expiry sweeper discarded " + discarded + " expired orders");
+    }
+}
@@ -0,0 +1,110 @@
+package com.css.challenge.management;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * ExpiryWheel is a hashed timing wheel of order expiries. Scheduling links an entry into the bucket of its tick in
+ * O(1), and advancing the wheel visits only the buckets whose ticks have passed, so every expiry costs O(1) amortized
+ * and nothing is ever scanned in full. An expiry more than one turn of the wheel away waits in its bucket for the turn
+ * it falls due in. Entries are never removed early: an order that is picked up or moved leaves its entry behind, and
+ * the caller recognises the stale entry and skips it when it comes due.
+ *
+ * <p>Scheduling takes no lock, so placements never wait on the sweeper or on each other. New entries are pushed onto
+ * a lock-free stack with one CAS, and only the sweeper touches the buckets: each advance first drains the stack,
+ * linking every entry into its bucket or straight into the due chain. Advances are serialized with each other.
+ */
+final class ExpiryWheel {
+    static final class Entry {
+        final int handle;
+        final String orderId;
+        final long tick;
+        Entry next;
+
+        Entry(int handle, String orderId, long tick) {
+            this.handle = handle;
+            this.orderId = orderId;
+            this.tick = tick;
+        }
+    }
+
+    private final long tickMicros;
+    private final Entry[] buckets; // only touched by advance
+    private final int mask;
+    private final AtomicReference<Entry> scheduled = new AtomicReference<>(); // entries not yet linked, newest first
+    private final AtomicInteger size = new AtomicInteger();
+    private long cursor; // last tick the wheel has been advanced to
+
+    /** Creates a wheel of the given power-of-two number of buckets, each one tick wide, starting at now. */
+    ExpiryWheel(long tickMicros, int buckets, long now) {
+        if (Integer.bitCount(buckets) != 1) {
+            throw new IllegalArgumentException("Bucket count must be a power of two: " + buckets);
+        }
+        this.tickMicros = tickMicros;
+        this.buckets = new Entry[buckets];
+        this.mask = buckets - 1;
+        this.cursor = now / tickMicros;
+    }
+
+    long getTickMicros() {
+        return tickMicros;
+    }
+
+    /**
+     * Schedules an order to come due once the clock reaches expiresAt, a unix timestamp in microseconds. Safe to call
+     * from any number of threads at once.
+     */
+    void schedule(int handle, String orderId, long expiresAt) {
+        // rounded up, so an entry is only due once its whole tick has passed
+        Entry entry = new Entry(handle, orderId, (expiresAt + tickMicros - 1) / tickMicros);
+        size.incrementAndGet();
+        Entry head;
+        do {
+            head = scheduled.get();
+            entry.next = head;
+        } while (!scheduled.compareAndSet(head, entry));
+    }
+
+    /** Moves the wheel to now and unlinks every entry that has come due, returned as a chain through next. */
+    synchronized Entry advance(long now) {
+        long target = now / tickMicros;
+        Entry due = null;
+        Entry next;
+        for (Entry entry = scheduled.getAndSet(null); entry != null; entry = next) {
+            next = entry.next;
+            if (entry.tick <= target) { // e.g. scheduled late, for a tick already passed
+                entry.next = due;
+                due = entry;
+                size.decrementAndGet();
+            } else {
+                int index = (int) (Math.max(entry.tick, cursor + 1) & mask); // never behind the cursor
+                entry.next = buckets[index];
+                buckets[index] = entry;
+            }
+        }
+        // past one full turn every bucket has been visited, and entries are compared against target, not the tick
+        for (long tick = cursor + 1; tick <= target && tick <= cursor + buckets.length; tick++) {
+            int index = (int) (tick & mask);
+            Entry kept = null;
+            for (Entry entry = buckets[index]; entry != null; entry = next) {
+                next = entry.next;
+                if (entry.tick <= target) {
+                    entry.next = due;
+                    due = entry;
+                    size.decrementAndGet();
+                } else {
+                    entry.next = kept;
+                    kept = entry;
+                }
+            }
+            buckets[index] = kept;
+        }
+        cursor = Math.max(cursor, target);
+        return due;
+    }
+
+    /** Number of entries scheduled and not yet due, stale ones included. */
+    int size() {
+        return size.get();
+    }
+}
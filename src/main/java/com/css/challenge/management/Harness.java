@@ -1,51 +1,145 @@
 package com.css.challenge.management;
 
-import com.css.challenge.client.Action;
+import com.css.challenge.client.ActionSink;
 import com.css.challenge.client.Order;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
 import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 
+/**
+ * Harness places orders at a fixed rate and gives every order its own task that sleeps for a random pickup delay in
+ * [min, max] and then picks the order up. On Java 21 and later each task is a virtual thread, so a million orders in
+ * flight cost a million small stacks rather than a million platform threads, and the scheduling code stays a plain
+ * sleep. On older runtimes the same tasks are timed by a scheduled executor instead of sleeping threads.
+ *
+ * <p>Tasks are forked into a {@link Scope} that run waits on, so the harness finishes when the last pickup has run
+ * instead of after a fixed total runtime.
+ */
 public class Harness {
-    /*public static void main(String[] args) {
-        List<Order> orders = List.of(
-                new Order("e6bc2", "Cheese Pizza", "hot", 120),
-                new Order("a1b2c", "Caesar Salad", "cold", 90),
-                new Order("x9y8z", "Garlic Bread", "room", 60)
-        );
-
-        OrderManagementSystem oms = new OrderManagementSystem();
-        Random random = new Random();
-
-        // Place orders at a rate of 2 orders/second
-        for (Order order : orders) {
-            oms.placeOrder(order, new ArrayList<Action>());
-            try {
-                Thread.sleep(500); // 2 orders/second
-            } catch (InterruptedException e) {
-                e.printStackTrace();
+    private static final Logger LOGGER = LoggerFactory.getLogger(Harness.class);
+
+    private final OrderManagementSystem oms;
+    private final ActionSink actions;
+    private final Duration rate;
+    private final Duration min;
+    private final Duration max;
+    private final Random random;
+
+    public Harness(OrderManagementSystem oms, ActionSink actions, Duration rate, Duration min, Duration max, long seed) {
+        this.oms = oms;
+        this.actions = actions;
+        this.rate = rate;
+        this.min = min;
+        this.max = max;
+        this.random = new Random(seed);
+    }
+
+    /** Places every order, then waits until every pickup has run. Returns the number of orders placed. */
+    public long run(Iterator<Order> orders) throws InterruptedException {
+        long placed = 0;
+        orders = oms.getOrderTable().intern(orders);
+        try (Scope scope = Scope.open()) {
+            while (orders.hasNext()) {
+                Order order = orders.next();
+                order.setTimestamp(Instant.now());
+                oms.placeOrder(order, actions);
+                scope.fork(System.nanoTime() + pickupDelay(), () -> oms.pickupOrder(order, actions));
+                placed++;
+                LockSupport.parkNanos(rate.toNanos());
             }
+            scope.join();
+        }
+        return placed;
+    }
+
+    private long pickupDelay() {
+        long spread = max.toNanos() - min.toNanos();
+        return min.toNanos() + (spread > 0 ? (long) (random.nextDouble() * spread) : 0);
+    }
+
+    /** Whether this runtime has virtual threads, i.e. Java 21 or later. */
+    public static boolean hasVirtualThreads() {
+        return Scope.VIRTUAL_THREAD_PER_TASK != null;
+    }
+
+    /**
+     * Scope owns the pickup tasks of one run: {@link #join()} returns once every forked task has completed, and
+     * closing the scope cancels whatever has not.
+     */
+    static final class Scope implements AutoCloseable {
+        /** Executors.newVirtualThreadPerTaskExecutor when the runtime has it, looked up so this compiles on 17. */
+        static final Method VIRTUAL_THREAD_PER_TASK = virtualThreadPerTask();
+
+        private final ExecutorService virtualThreads;
+        private final ScheduledExecutorService scheduler;
+
+        private Scope(ExecutorService virtualThreads, ScheduledExecutorService scheduler) {
+            this.virtualThreads = virtualThreads;
+            this.scheduler = scheduler;
+        }
 
-            // Schedule pickup after a random delay (4-8 seconds)
-            new Thread(() -> {
+        static Scope open() {
+            if (VIRTUAL_THREAD_PER_TASK != null) {
                 try {
-                    Thread.sleep(random.nextInt(4000) + 4000); // 4-8 seconds
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
+                    return new Scope((ExecutorService) VIRTUAL_THREAD_PER_TASK.invoke(null), null);
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalStateException("Could not create a virtual thread executor", e);
                 }
-                oms.pickupOrder(order.getId());
-            }).start();
+            }
+            LOGGER.info("Virtual threads need Java 21, timing pickups with a scheduled executor instead");
+            return new Scope(null, Executors.newScheduledThreadPool(Runtime.getRuntime().availableProcessors(),
+                    task -> {
+                        Thread thread = new Thread(task, "harness-pickup");
+                        thread.setDaemon(true);
+                        return thread;
+                    }));
+        }
+
+        /** Runs the task at the given {@link System#nanoTime()}. */
+        void fork(long due, Runnable task) {
+            if (virtualThreads != null) {
+                virtualThreads.execute(() -> {
+                    for (long wait = due - System.nanoTime(); wait > 0; wait = due - System.nanoTime()) {
+                        LockSupport.parkNanos(wait); // a parked virtual thread releases its carrier
+                        if (Thread.interrupted()) {
+                            return;
+                        }
+                    }
+                    task.run();
+                });
+            } else {
+                scheduler.schedule(task, due - System.nanoTime(), TimeUnit.NANOSECONDS);
+            }
         }
 
-        // Wait for all pickups to complete
-        try {
-            Thread.sleep(10000); // Wait for 10 seconds
-        } catch (InterruptedException e) {
-            e.printStackTrace();
+        /** Waits until every forked task has run. No tasks may be forked afterwards. */
+        void join() throws InterruptedException {
+            ExecutorService executor = virtualThreads != null ? virtualThreads : scheduler;
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
         }
 
-        // Print action log
-        oms.getActionLog().forEach(System.out::println);
-    }*/
+        @Override
+        public void close() {
+            (virtualThreads != null ? virtualThreads : scheduler).shutdownNow();
+        }
+
+        private static Method virtualThreadPerTask() {
+            try {
+                return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            } catch (NoSuchMethodException e) {
+                return null;
+            }
+        }
+    }
 }
@@ -0,0 +1,277 @@
+package com.css.challenge.management;
+
+import com.css.challenge.client.ActionSink;
+import com.css.challenge.client.Order;
+import com.css.challenge.metrics.IngressMetrics;
+import com.css.challenge.storage.Location;
+import com.css.challenge.storage.OrderTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * IngressPipeline puts a bounded queue between order producers and an {@link OrderManagementSystem}. Any number of
+ * producers submit orders; a single consumer thread takes them in arrival order and places them, a whole backlog at a
+ * time through {@link OrderManagementSystem#placeOrders(java.util.Collection, ActionSink)}, so a burst costs one round
+ * of storage locks per batch instead of one convoy of producers per order. Producers only ever hold the queue lock for
+ * a few array writes.
+ *
+ * <p>What happens when the queue is full is the {@link OverflowPolicy}: producers wait, are turned away, or the least
+ * fresh order is shed. Either way the number of orders waiting is bounded by the capacity, and queue depth, queueing
+ * time and admissions are recorded into {@link #getMetrics()}.
+ */
+public class IngressPipeline implements AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(IngressPipeline.class);
+
+    /** Orders taken off the queue and placed as one batch at most. */
+    private static final int DRAIN_LIMIT = 64;
+
+    public enum OverflowPolicy {
+        /** Producers wait for room. */
+        BLOCK,
+        /** The order is turned away and {@link #submit(Order)} returns false. */
+        REJECT,
+        /** The least fresh of the queued orders and the new one is dropped. */
+        SHED_LEAST_FRESH;
+
+        /** Parses the {@code ingress.policy} names block, reject and shed. */
+        public static OverflowPolicy of(String name) {
+            switch (name) {
+                case "block":
+                    return BLOCK;
+                case "reject":
+                    return REJECT;
+                case "shed":
+                    return SHED_LEAST_FRESH;
+                default:
+                    throw new IllegalArgumentException("ingress.policy must be block, reject or shed: " + name);
+            }
+        }
+    }
+
+    private final OrderManagementSystem oms;
+    private final ActionSink actions;
+    private final OverflowPolicy policy;
+    private final Consumer<Order> placed;
+    private final Order[] orders; // ring buffer, guarded by lock
+    private final long[] enqueued; // System.nanoTime() each queued order arrived, guarded by lock
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final IngressMetrics metrics;
+    private final Thread consumer;
+    private int head; // guarded by lock
+    private volatile int count; // written under lock
+    private boolean closed; // guarded by lock
+    private boolean started; // guarded by lock
+
+    /**
+     * Creates a pipeline that places into the given system and then hands every order that was stored to the placed
+     * callback on the consumer thread, e.g. to schedule its pickup.
+     */
+    public IngressPipeline(OrderManagementSystem oms, ActionSink actions, int capacity, OverflowPolicy policy,
+                           Consumer<Order> placed) {
+        this.oms = oms;
+        this.actions = actions;
+        this.policy = policy;
+        this.placed = placed;
+        this.orders = new Order[capacity];
+        this.enqueued = new long[capacity];
+        this.metrics = new IngressMetrics(capacity, () -> count);
+        this.consumer = new Thread(this::run, "ingress");
+        this.consumer.setDaemon(true);
+    }
+
+    public IngressMetrics getMetrics() {
+        return metrics;
+    }
+
+    public void start() {
+        lock.lock();
+        try {
+            if (!started) {
+                started = true;
+                consumer.start();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Queues the order for placement. Returns false if it was not queued: rejected because the queue was full or
+     * closed while waiting, or shed as the least fresh order. Orders that are turned away or shed are released from
+     * the system's order table, as they will never be stored.
+     */
+    public boolean submit(Order order) throws InterruptedException {
+        boolean queued = false;
+        try {
+            queued = queue(order);
+            return queued;
+        } finally {
+            if (!queued) {
+                oms.getOrderTable().release(order);
+            }
+        }
+    }
+
+    private boolean queue(Order order) throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Ingress pipeline is closed");
+            }
+            while (count == orders.length) {
+                if (policy == OverflowPolicy.REJECT) {
+                    metrics.rejected();
+                    return false;
+                }
+                if (policy == OverflowPolicy.SHED_LEAST_FRESH) {
+                    if (!shedLeastFresh(order)) {
+                        return false;
+                    }
+                    break;
+                }
+                notFull.await();
+                if (closed) {
+                    metrics.rejected();
+                    return false;
+                }
+            }
+            int tail = index(count);
+            orders[tail] = order;
+            enqueued[tail] = System.nanoTime();
+            count++;
+            metrics.accepted(count);
+            notEmpty.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drops the least fresh queued order to make room for the incoming one, unless the incoming order is no fresher,
+     * in which case it is the one dropped and false is returned. Only runs on a full queue, so the scan of the queue
+     * is bounded by the capacity. Callers must hold the lock.
+     */
+    private boolean shedLeastFresh(Order incoming) {
+        int least = 0;
+        for (int i = 1; i < count; i++) {
+            if (orders[index(i)].getFreshness() < orders[index(least)].getFreshness()) {
+                least = i;
+            }
+        }
+        metrics.shed();
+        if (incoming.getFreshness() <= orders[index(least)].getFreshness()) {
+            return false;
+        }
+        oms.getOrderTable().release(orders[index(least)]);
+        // close the gap so the queue stays in arrival order
+        for (int i = least; i < count - 1; i++) {
+            orders[index(i)] = orders[index(i + 1)];
+            enqueued[index(i)] = enqueued[index(i + 1)];
+        }
+        orders[index(count - 1)] = null;
+        count--;
+        return true;
+    }
+
+    /** Ring buffer slot of the order at the given position from the head. Callers must hold the lock. */
+    private int index(int position) {
+        return (head + position) % orders.length;
+    }
+
+    private void run() {
+        List<Order> batch = new ArrayList<>(DRAIN_LIMIT);
+        try {
+            while (take(batch)) {
+                try {
+                    if (batch.size() == 1) {
+                        oms.placeOrder(batch.get(0), actions);
+                    } else {
+                        oms.placeOrders(batch, actions);
+                    }
+                } catch (RuntimeException e) {
+                    LOGGER.warn("Could not place " + batch.size() + " orders: {}", e.getMessage());
+                }
+                handOn(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            LOGGER.info("Ingress pipeline stopped with " + count + " orders queued");
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Hands every order of the batch that is stored somewhere to the placed callback, one at a time so a failing
+     * callback costs only its own order. Orders a failed placement never reached are released from the order table.
+     */
+    private void handOn(List<Order> batch) {
+        OrderTable table = oms.getOrderTable();
+        for (Order order : batch) {
+            if (table.location(table.handle(order)) == Location.NONE) {
+                table.release(order);
+                continue;
+            }
+            try {
+                placed.accept(order);
+            } catch (RuntimeException e) {
+                LOGGER.warn("Could not hand on placed order " + order.getId() + ": {}", e.getMessage());
+            }
+        }
+    }
+
+    /** Waits for orders and moves up to DRAIN_LIMIT of them into the batch. Returns false once closed and empty. */
+    private boolean take(List<Order> batch) throws InterruptedException {
+        lock.lock();
+        try {
+            while (count == 0) {
+                if (closed) {
+                    return false;
+                }
+                notEmpty.await();
+            }
+            long now = System.nanoTime();
+            while (count > 0 && batch.size() < DRAIN_LIMIT) {
+                batch.add(orders[head]);
+                metrics.recordWait(now - enqueued[head]);
+                orders[head] = null;
+                head = (head + 1) % orders.length;
+                count--;
+            }
+            notFull.signalAll();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops accepting orders and waits until every order queued so far has been placed. Producers still waiting for
+     * room are turned away.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        start();
+        try {
+            consumer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.css.challenge.management;
+
+import com.css.challenge.client.Order;
+import com.css.challenge.client.Temperature;
+import com.css.challenge.storage.PickupWindow;
+import com.css.challenge.storage.Shelf;
+import com.css.challenge.storage.Storage;
+
+import java.time.Duration;
+
+/**
+ * LookaheadPlacementPolicy frees shelf room with the fewest lost pickups. Pickups arrive uniformly between min and
+ * max after placement, so each shelf order has a chance of surviving until its own pickup. That chance is the share of
+ * its remaining pickup window that falls before its freshness deadline. An order whose deadline passes before its
+ * earliest possible pickup cannot be picked up successfully, and neither can an order whose window has already
+ * passed.
+ *
+ * <p>The policy decides in three steps:
+ * <ol>
+ *   <li>If an order is doomed, it is discarded. This costs no pickup, and the heater and cooler slots stay free for
+ *   orders that need them.</li>
+ *   <li>Otherwise a hot or cold order moves to a storage with room, whichever of the two has the lower chance.</li>
+ *   <li>Otherwise the order with the lowest chance is discarded.</li>
+ * </ol>
+ * The candidates are the tops of the shelf's three freshness heaps, so a decision costs three O(1) peeks.
+ *
+ * <p>This is a heuristic, not an exact minimum. The heaps are ordered by deadline, but the chance also depends on how
+ * much of an order's pickup window is left, which the heaps do not track. A shelf order below the top of its heap,
+ * placed earlier with a later deadline, can have a lower chance than the top and is never considered. Finding it
+ * would mean scoring every shelf order or keeping a second index ordered by chance, which changes as time passes.
+ */
+public class LookaheadPlacementPolicy implements PlacementPolicy {
+    private static final Temperature[] TEMPERATURES = Temperature.values();
+
+    private final long earliestPickup; // microseconds after placement
+    private final long latestPickup; // microseconds after placement
+
+    /** Assumes pickups in the default window, between 4 and 8 seconds after placement. */
+    public LookaheadPlacementPolicy() {
+        this(PickupWindow.DEFAULT.getMin(), PickupWindow.DEFAULT.getMax());
+    }
+
+    public LookaheadPlacementPolicy(Duration min, Duration max) {
+        this.earliestPickup = min.toNanos() / 1000;
+        this.latestPickup = Math.max(max.toNanos() / 1000, earliestPickup + 1);
+    }
+
+    @Override
+    public Eviction evict(Order incoming, Storage cooler, Storage heater, Shelf shelf, long now) {
+        Order weakest = null;
+        double weakestChance = Double.MAX_VALUE;
+        Order movable = null;
+        double movableChance = Double.MAX_VALUE;
+        for (Temperature temperature : TEMPERATURES) {
+            Order candidate = shelf.getLeastFreshOrder(temperature);
+            if (candidate == null) {
+                continue;
+            }
+            double chance = pickupChance(candidate, now);
+            if (chance < weakestChance) {
+                weakest = candidate;
+                weakestChance = chance;
+            }
+            Storage ideal = temperature == Temperature.HOT ? heater : temperature == Temperature.COLD ? cooler : null;
+            if (ideal != null && !ideal.isFull() && chance < movableChance) {
+                movable = candidate;
+                movableChance = chance;
+            }
+        }
+        if (weakest == null) {
+            return null;
+        }
+        if (weakestChance > 0 && movable != null) {
+            return Eviction.move(movable, movable.getTemperature() == Temperature.HOT ? heater : cooler);
+        }
+        return Eviction.discard(weakest);
+    }
+
+    /** Probability that the order is still fresh when it is picked up, given that it has not been picked up by now. */
+    double pickupChance(Order order, long now) {
+        long from = Math.max(now, order.getTimestamp() + earliestPickup);
+        long to = order.getTimestamp() + latestPickup;
+        if (to <= from) {
+            return 0;
+        }
+        double chance = (double) (order.getDeadline() - from) / (to - from);
+        return Math.max(0, Math.min(1, chance));
+    }
+}
@@ -1,253 +1,712 @@
 package com.css.challenge.management;
 
 import com.css.challenge.client.Action;
+import com.css.challenge.client.ActionSink;
 import com.css.challenge.client.Order;
+import com.css.challenge.client.Temperature;
+import com.css.challenge.config.Config;
+import com.css.challenge.journal.Journal;
+import com.css.challenge.journal.Snapshot;
+import com.css.challenge.metrics.OrderMetrics;
+import com.css.challenge.metrics.OrderMetrics.Operation;
+import com.css.challenge.storage.Location;
+import com.css.challenge.storage.OffHeapShelf;
+import com.css.challenge.storage.OffHeapStorage;
+import com.css.challenge.storage.OrderTable;
+import com.css.challenge.storage.PickupResult;
+import com.css.challenge.storage.PickupWindow;
 import com.css.challenge.storage.Shelf;
 import com.css.challenge.storage.Storage;
+import com.css.challenge.trace.TraceEvent;
+import com.css.challenge.trace.Tracer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+/**
+ * OrderManagementSystem places and picks up orders across the cooler, heater and shelf. There is no global lock:
+ * single-storage operations only take that storage's lock, and overflow handling that moves orders between storages
+ * takes just the locks it needs, always in the order cooler, heater, shelf, so concurrent callers cannot deadlock.
+ * Callers sharing one actions list across threads must pass a thread-safe list. Latency, action counts and
+ * occupancy are recorded into {@link #getMetrics()}. Orders are interned in an {@link OrderTable}, which holds their
+ * state and where each sits, so a pickup goes straight to the right storage; callers that read orders from a feed
+ * can intern them as they are parsed through {@link OrderTable#intern}. With a {@link Journal}, every action is also
+ * written durably, and {@link #recover(Path, ActionSink)} rebuilds the storages from an earlier run's journal.
+ * When an order fits neither its ideal storage nor the shelf, a {@link PlacementPolicy} chooses the shelf order to
+ * move or discard; {@code placement.policy} selects the default or the lookahead policy. With
+ * {@code expiry.sweep=true}, every placement also schedules the order's expiry on an {@link ExpiryWheel}, and
+ * {@link #expireOrders(ActionSink)} discards orders as they expire rather than when a pickup finds them.
+ */
 public class OrderManagementSystem {
     private static final Logger LOGGER = LoggerFactory.getLogger(OrderManagementSystem.class);
 
-    private Storage cooler;
-    private Storage heater;
-    private Shelf shelf;
+    // Placement branches per temperature, indexed by Temperature ordinal and then by branch.
+    private static final int IDEAL = 0;
+    private static final int SHELF = 1;
+    private static final int MOVE = 2;
+    private static final int DISCARD = 3;
+    private static final Operation[][] BRANCHES = {
+            {Operation.HOT_HEATER, Operation.HOT_SHELF, Operation.HOT_MOVE, Operation.HOT_DISCARD},
+            {Operation.COLD_COOLER, Operation.COLD_SHELF, Operation.COLD_MOVE, Operation.COLD_DISCARD},
+            {null, Operation.ROOM_SHELF, Operation.ROOM_MOVE, Operation.ROOM_DISCARD}
+    };
+    private static final int MOVED = 0;
+    private static final int DISCARDED = 1;
+    private static final int EXPIRY_BUCKETS = 256; // with 16 ticks a second, one turn covers twice the pickup window
+
+    private final Storage cooler;
+    private final Storage heater;
+    private final Shelf shelf;
+    private final Clock clock;
+    private final OrderMetrics metrics;
+    private final OrderTable table;
+    private final Journal journal;
+    private final ExpiryWheel expiries;
+    private volatile PlacementPolicy policy;
+    private volatile PickupWindow pickupWindow = PickupWindow.DEFAULT;
 
     public OrderManagementSystem() {
-        this.cooler = new Storage(6);
-        this.heater = new Storage(6);
-        this.shelf = new Shelf(12);
+        this(Clock.systemUTC());
+    }
+
+    /** Creates a system whose storages read time from the given clock, e.g. a {@link VirtualClock} in simulations. */
+    public OrderManagementSystem(Clock clock) {
+        this(clock, null);
+    }
+
+    /** Creates a system that also records every action in the journal, if one is given. */
+    public OrderManagementSystem(Clock clock, Journal journal) {
+        Config config = Config.get();
+        if (config.isOffHeapStorage()) {
+            this.cooler = new OffHeapStorage(config.getCoolerCapacity(), clock);
+            this.heater = new OffHeapStorage(config.getHeaterCapacity(), clock);
+            this.shelf = new OffHeapShelf(config.getShelfCapacity(), clock);
+        } else {
+            this.cooler = new Storage(config.getCoolerCapacity(), clock);
+            this.heater = new Storage(config.getHeaterCapacity(), clock);
+            this.shelf = new Shelf(config.getShelfCapacity(), clock);
+        }
+        this.clock = clock;
+        this.metrics = new OrderMetrics(cooler, heater, shelf);
+        this.table = new OrderTable();
+        cooler.attach(table, Location.COOLER);
+        heater.attach(table, Location.HEATER);
+        shelf.attach(table, Location.SHELF);
+        this.journal = journal;
+        this.expiries = config.isExpirySweep()
+                ? new ExpiryWheel(Math.max(1, config.getMicrosPerSecond() / 16), EXPIRY_BUCKETS, now()) : null;
+        this.policy = PlacementPolicy.of(config, pickupWindow.getMin(), pickupWindow.getMax());
+    }
+
+    public OrderTable getOrderTable() {
+        return table;
+    }
+
+    public OrderMetrics getMetrics() {
+        return metrics;
+    }
+
+    public PlacementPolicy getPlacementPolicy() {
+        return policy;
+    }
+
+    /** Replaces the policy that decides which shelf order to move or discard on overflow. */
+    public void setPlacementPolicy(PlacementPolicy policy) {
+        this.policy = policy;
+    }
+
+    public PickupWindow getPickupWindow() {
+        return pickupWindow;
+    }
+
+    /**
+     * Sets the span after placement in which orders can be picked up, e.g. from the --min and --max options, in
+     * every storage and for expiry tracking. Expiries already scheduled keep the window they were scheduled with.
+     */
+    public void setPickupWindow(PickupWindow pickupWindow) {
+        this.pickupWindow = pickupWindow;
+        for (Storage storage : new Storage[]{cooler, heater, shelf}) {
+            storage.setPickupWindow(pickupWindow);
+        }
+    }
+
+    /**
+     * How often {@link #expireOrders(ActionSink)} should run to discard orders within one tick of their expiry, or
+     * null if this system was created with {@code expiry.sweep=false} and does not track expiries.
+     */
+    public Duration getExpiryInterval() {
+        return expiries == null ? null : Duration.of(expiries.getTickMicros(), ChronoUnit.MICROS);
+    }
+
+    /** Applies the storage capacities of a reloaded configuration without a restart. */
+    public void resize(Config config) {
+        cooler.setCapacity(config.getCoolerCapacity());
+        heater.setCapacity(config.getHeaterCapacity());
+        shelf.setCapacity(config.getShelfCapacity());
     }
 
-    public synchronized void placeOrder(Order order, List<Action> actions) {
-        LOGGER.info("Placing order : "+order.getId()+" & temp : "+order.getTemp());
-        switch (order.getTemp()) {
-            case "hot":
+    public void placeOrder(Order order, List<Action> actions) {
+        placeOrder(order, ActionSink.of(actions));
+    }
+
+    public void placeOrder(Order order, ActionSink actions) {
+        long start = System.nanoTime();
+        Tracer.trace(TraceEvent.PLACING, order.getId(), order.getTemp());
+        switch (order.getTemperature()) {
+            case HOT:
                 handleHotOrders(order, actions);
                 break;
-            case "cold":
+            case COLD:
                 handleColdOrders(order, actions);
                 break;
             default:
                 handleRoomOrders(order, actions );
                 break;
         }
+        metrics.record(Operation.PLACE, start);
     }
 
     // Pickup logic
-    public synchronized void pickupOrder(Order order, List<Action> actions) {
-        LOGGER.info("Picking up : "+order.getId());
-        String orderId = order.getId();
+    public void pickupOrder(Order order, List<Action> actions) {
+        pickupOrder(order, ActionSink.of(actions));
+    }
 
-        switch (order.getTemp()) {
-            case "hot":
-                long hotOrderPickUpTime = ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now());
-                if(heater.pickupOrder(orderId, actions)){
-                    actions.add(new Action(hotOrderPickUpTime, orderId, Action.PICKUP));
-                    break;
-                }
-                if (shelf.pickupOrder(orderId, actions)) {
-                    actions.add(new Action(hotOrderPickUpTime, orderId, Action.PICKUP));
-                }
+    public void pickupOrder(Order order, ActionSink actions) {
+        long start = System.nanoTime();
+        Tracer.trace(TraceEvent.PICKING_UP, order.getId());
+
+        long pickupTime = now();
+        PickupResult result;
+        switch (order.getTemperature()) {
+            case HOT:
+                result = pickupFromIdealOrShelf(heater, order);
                 break;
-            case "cold":
-                long coldOrderPickUpTime = ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now());
-                if(cooler.pickupOrder(orderId, actions)){
-                    actions.add(new Action(coldOrderPickUpTime, orderId, Action.PICKUP));
-                    break;
-                }
-                if (shelf.pickupOrder(orderId, actions)) {
-                    actions.add(new Action(coldOrderPickUpTime, orderId, Action.PICKUP));
-                }
+            case COLD:
+                result = pickupFromIdealOrShelf(cooler, order);
                 break;
             default:
-                long shelfOrderPickUpTime = ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now());
-                if(shelf.pickupOrder(orderId, actions)){
-                    actions.add(new Action(shelfOrderPickUpTime, orderId, Action.PICKUP));
-                }
+                result = shelf.pickup(order.getId());
                 break;
         }
+        if (result == PickupResult.PICKED_UP) {
+            emit(actions, pickupTime, order, Action.PICKUP_CODE);
+        } else if (result == PickupResult.EXPIRED) {
+            emit(actions, now(), order, Action.DISCARD_CODE);
+        }
+        if (result == PickupResult.PICKED_UP || result == PickupResult.EXPIRED) {
+            rebalance(order.getTemperature(), actions);
+        }
+        metrics.record(Operation.PICKUP, start);
     }
 
-    public void handleHotOrders(Order order, List<Action> actions){
-        long hotOrderPlacedTime = order.getTimestamp();
-        if(heater.addOrder(order)){
-            LOGGER.info("Hot Order place in heater");
-            actions.add(new Action(hotOrderPlacedTime, order.getId(), Action.PLACE));
+    /**
+     * Called when a pickup may have freed a slot in the cooler or heater: pulls the least fresh order of that
+     * temperature off the shelf into the free slot, where it stops decaying at the shelf rate, and emits a MOVE.
+     * Only the ideal storage's lock and the shelf lock are taken, in that order, and the move costs one heap removal
+     * on the shelf. A full storage is seen without locking, so pickups that free nothing pay almost nothing.
+     */
+    private void rebalance(Temperature temperature, ActionSink actions) {
+        Storage ideal = idealFor(temperature);
+        if (ideal == null || ideal.isFull() || !Config.get().isRebalanceEnabled()) {
             return;
         }
-        if(shelf.moveOrder(order)){
-            LOGGER.info("Heater was full so Hot Order moved to Shelf ");
-            actions.add(new Action(hotOrderPlacedTime, order.getId(), Action.PLACE));
-            return;
+        ideal.getLock().lock();
+        shelf.getLock().lock();
+        try {
+            refill(ideal, temperature, actions, now());
+        } finally {
+            shelf.getLock().unlock();
+            ideal.getLock().unlock();
         }
-        LOGGER.info("Heater was full and Shelf is also full so we are checking space in cooler");
-        long discardTimeStamp = ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now());
-        if(cooler.isFull()){
-            LOGGER.info(" Cooler is full so removing least fresh order from shelf");
-            Order discardedOrder = shelf.getOrderToDiscard();
-            if (discardedOrder != null) {
-                shelf.removeOrder(discardedOrder.getId());
-                LOGGER.info("least fresh order discarded as heater, shelf & cooler, all are full");
-                actions.add(new Action(discardTimeStamp, discardedOrder.getId(), Action.DISCARD));
-            }
-            if(shelf.moveOrder(order)){
-                LOGGER.info(" Hot order moved to shelf with reduced freshness to half ");
-                order.setTimestamp(Instant.now());
-                actions.add(new Action(hotOrderPlacedTime, order.getId(), Action.PLACE));
+    }
+
+    /** Moves shelf orders of the temperature into the ideal storage until it is full. Caller holds both locks. */
+    private void refill(Storage ideal, Temperature temperature, ActionSink actions, long now) {
+        while (!ideal.isFull()) {
+            Order order = shelf.getLeastFreshOrder(temperature);
+            if (order == null || !ideal.addOrder(order)) {
+                return;
             }
-            return;
+            Tracer.trace(TraceEvent.MOVED, order.getId(), ideal.getLocation().getName());
+            shelf.removeOrder(order.getId());
+            emit(actions, now, order, Action.MOVE_CODE);
+        }
+    }
+
+    /**
+     * Tries the storage the order table last saw the order in first. Without a global lock an order can be moved from
+     * the shelf to its ideal storage between two lookups, but orders never move the other way: an order seen in its
+     * ideal storage is either still there or gone, and an order seen on the shelf needs one more look at the ideal
+     * storage. Orders the table has not seen fall back to checking ideal, shelf, ideal.
+     */
+    private PickupResult pickupFromIdealOrShelf(Storage ideal, Order order) {
+        String orderId = order.getId();
+        Location location = table.location(table.handle(order));
+        if (location == ideal.getLocation()) {
+            return ideal.pickup(orderId);
+        }
+        PickupResult result = PickupResult.NOT_FOUND;
+        if (location != Location.SHELF) {
+            result = ideal.pickup(orderId);
         }
-        LOGGER.info("Cooler is not full so we will move cold order from shelf to cooler");
-        Order coldOrder = shelf.getLeastFreshColdOrder();
-        if(coldOrder == null){
-            LOGGER.info(" Did not find cold order on shelf so discard least fresh order from shelf");
-            Order discardedOrder = shelf.getOrderToDiscard();
+        if (result == PickupResult.NOT_FOUND) {
+            result = shelf.pickup(orderId);
+        }
+        if (result == PickupResult.NOT_FOUND) {
+            result = ideal.pickup(orderId);
+        }
+        return result;
+    }
+
+    public void placeOrders(Collection<Order> orders, List<Action> actions) {
+        placeOrders(orders, ActionSink.of(actions));
+    }
 
-            if (discardedOrder != null) {
-                shelf.removeOrder(discardedOrder.getId());
-                LOGGER.info(" Cooler has space but no cold order on shelf so discarding least fresh order ");
-                actions.add(new Action(discardTimeStamp, discardedOrder.getId(), Action.DISCARD));
+    /**
+     * Places a burst of orders as one batch, with one acquisition of the cooler, heater and shelf locks and one clock
+     * read for the whole batch. Orders are placed in the order given, each exactly as {@link #placeOrder} would place
+     * it at that instant, so a batch ends with the same actions and storage contents as placing its orders one at a
+     * time; what it saves is the per-order locking, clock reads and metrics.
+     */
+    public void placeOrders(Collection<Order> orders, ActionSink actions) {
+        long start = System.nanoTime();
+        cooler.getLock().lock();
+        heater.getLock().lock();
+        shelf.getLock().lock();
+        try {
+            long now = now();
+            for (Order order : orders) {
+                Tracer.trace(TraceEvent.PLACING, order.getId(), order.getTemp());
+                handleOverflow(order, actions, order.getTimestamp(), now);
             }
-            if (shelf.moveOrder(order)){
-                LOGGER.info("Added new order to shelf after discarding old order from shelf as we didn't find cold order on shelf");
-                order.setTimestamp(Instant.now());
-                actions.add(new Action(hotOrderPlacedTime, order.getId(), Action.PLACE));
+        } finally {
+            shelf.getLock().unlock();
+            heater.getLock().unlock();
+            cooler.getLock().unlock();
+        }
+        metrics.record(Operation.PLACE_BATCH, start);
+    }
+
+    /**
+     * Frees one shelf slot for the incoming order as the placement policy decides. Runs with all three locks held.
+     * Returns MOVED or DISCARDED for the eviction carried out, or -1 if the shelf is empty or the move did not fit.
+     */
+    private int makeRoomOnShelf(Order incoming, ActionSink actions, long now) {
+        Eviction eviction = policy.evict(incoming, cooler, heater, shelf, now);
+        if (eviction == null) {
+            return -1;
+        }
+        Order order = eviction.getOrder();
+        if (eviction.isMove()) {
+            Storage target = eviction.getTarget();
+            if (!target.addOrder(order)) {
+                return -1;
             }
-            return;
+            Tracer.trace(TraceEvent.MOVED, order.getId(), target.getLocation().getName());
+            shelf.removeOrder(order.getId());
+            emit(actions, now, order, Action.MOVE_CODE);
+            return MOVED;
         }
-        LOGGER.info(" We found cold order on shelf ");
-        if (cooler.addOrder(coldOrder)){
-            LOGGER.info("Cold order added in cooler and removed from shelf");
-            shelf.removeOrder(coldOrder.getId());
-            actions.add(new Action(discardTimeStamp, coldOrder.getId(), Action.MOVE));
-            if(shelf.moveOrder(order)){
-                LOGGER.info(order.getId()+" New order added to shelf");
-                order.setTimestamp(Instant.now());
-                actions.add(new Action(hotOrderPlacedTime, order.getId(), Action.PLACE));
+        shelf.removeOrder(order.getId());
+        Tracer.trace(TraceEvent.DISCARDED, order.getId());
+        emit(actions, now, order, Action.DISCARD_CODE);
+        return DISCARDED;
+    }
+
+    public void pickupOrders(Collection<Order> orders, List<Action> actions) {
+        pickupOrders(orders, ActionSink.of(actions));
+    }
+
+    /**
+     * Picks up a batch of orders with one acquisition of the cooler, heater and shelf locks and one clock read, so
+     * every order in the batch is judged ready or expired at the same instant.
+     */
+    public void pickupOrders(Collection<Order> orders, ActionSink actions) {
+        long start = System.nanoTime();
+        cooler.getLock().lock();
+        heater.getLock().lock();
+        shelf.getLock().lock();
+        try {
+            long now = now();
+            for (Order order : orders) {
+                Tracer.trace(TraceEvent.PICKING_UP, order.getId());
+                PickupResult result = pickupLocked(order, now);
+                if (result == PickupResult.PICKED_UP) {
+                    emit(actions, now, order, Action.PICKUP_CODE);
+                } else if (result == PickupResult.EXPIRED) {
+                    emit(actions, now, order, Action.DISCARD_CODE);
+                }
+            }
+            if (Config.get().isRebalanceEnabled()) {
+                refill(cooler, Temperature.COLD, actions, now);
+                refill(heater, Temperature.HOT, actions, now);
             }
+        } finally {
+            shelf.getLock().unlock();
+            heater.getLock().unlock();
+            cooler.getLock().unlock();
         }
+        metrics.record(Operation.PICKUP_BATCH, start);
+    }
 
+    /**
+     * With every lock held nothing moves, so the storage the order table last saw the order in is authoritative; the
+     * ideal storage and the shelf are only searched for orders the table no longer tracks.
+     */
+    private PickupResult pickupLocked(Order order, long now) {
+        Storage storage = storageAt(table.location(table.handle(order)));
+        PickupResult result = storage == null ? PickupResult.NOT_FOUND : storage.pickup(order.getId(), now);
+        if (result != PickupResult.NOT_FOUND) {
+            return result;
+        }
+        Storage ideal = order.getTemperature() == Temperature.HOT ? heater
+                : order.getTemperature() == Temperature.COLD ? cooler : shelf;
+        result = ideal.pickup(order.getId(), now);
+        if (result == PickupResult.NOT_FOUND && ideal != shelf) {
+            result = shelf.pickup(order.getId(), now);
+        }
+        return result;
     }
 
-    public void handleColdOrders(Order order, List<Action> actions){
-        LOGGER.info("Cold order received Order id : "+order.getId());
-        long coldOrderPlacedTime = order.getTimestamp();
-        if(cooler.addOrder(order)){
-            order.setTimestamp(Instant.now());
-            actions.add(new Action(coldOrderPlacedTime, order.getId(), Action.PLACE));
-            return;
+    /** Appends an action for the order, counts it in the metrics and journals it. */
+    private void emit(ActionSink actions, long timestamp, Order order, byte action) {
+        actions.append(timestamp, order.getId(), action);
+        metrics.count(action);
+        boolean placed = action == Action.PLACE_CODE || action == Action.MOVE_CODE;
+        if (journal != null) {
+            journal.append(timestamp, action, placed ? table.location(table.handle(order)) : Location.NONE, order);
         }
-        if(shelf.moveOrder(order)){
-            LOGGER.info("Cooler was full so Hot Order is moved to Shelf ");
-            order.setTimestamp(Instant.now());
-            actions.add(new Action(coldOrderPlacedTime, order.getId(), Action.PLACE));
-            return;
+        if (placed) {
+            track(order);
         }
-        LOGGER.info("Cooler was full and Shelf is also full so we are checking space in Heater");
-        long discardTimeStamp = ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now());
-        if (heater.isFull()){
-            LOGGER.info(order.getId()+" Heater is full so removing least fresh order from shelf");
-            Order discardedOrder = shelf.getOrderToDiscard();
-            if (discardedOrder != null) {
-                shelf.removeOrder(discardedOrder.getId());
-                LOGGER.info("Handling cold order : least fresh order discarded as heater, shelf & cooler, all are full");
-                actions.add(new Action(discardTimeStamp, discardedOrder.getId(), Action.DISCARD));
-            }
-            if(shelf.moveOrder(order)){
-                LOGGER.info(" Cold order moved to shelf with reduced freshness to half ");
-                order.setTimestamp(Instant.now());
-                actions.add(new Action(coldOrderPlacedTime, order.getId(), Action.PLACE));
-            }
-            return;
+    }
+
+    /**
+     * Schedules the order's expiry on the expiry wheel. Every placement and move is tracked, so an order whose deadline
+     * changes gets a fresh entry and the old one goes stale.
+     */
+    private void track(Order order) {
+        int handle = table.handle(order);
+        if (expiries != null && handle >= 0) {
+            expiries.schedule(handle, order.getId(), expiresAt(order, table.deadline(handle)));
         }
-        LOGGER.info("Heater is not full so we move hot order from shelf to cooler");
-        Order hotOrder = shelf.getLeastFreshHotOrder();
-        if(hotOrder == null){
-            LOGGER.info(" Did not find Hold order on shelf so discard least fresh order from shelf");
-            Order discardedOrder = shelf.getOrderToDiscard();
-            if (discardedOrder != null) {
-                shelf.removeOrder(discardedOrder.getId());
-                LOGGER.info(" heater has space but no hot order on shelf so discarding least fresh order");
-                actions.add(new Action(discardTimeStamp, discardedOrder.getId(), Action.DISCARD));
-            }
-            if (shelf.moveOrder(order)){
-                LOGGER.info("Added new order to shelf after discarding old order from shelf as we didn't find hot order on shelf");
-                order.setTimestamp(Instant.now());
-                actions.add(new Action(coldOrderPlacedTime, order.getId(), Action.PLACE));
+    }
+
+    /** When the order either stops being fresh or falls out of the pickup window, whichever comes first. */
+    private long expiresAt(Order order, long deadline) {
+        return Math.min(deadline, order.getTimestamp() + pickupWindow.latest());
+    }
+
+    /**
+     * Discards every stored order that has expired, instead of waiting for a pickup to find it, and returns how many
+     * were discarded. Only the orders that have come due on the expiry wheel are looked at, and each is discarded
+     * under the lock of the storage it sits in. A heater or cooler slot freed this way is refilled from the shelf, as
+     * after a pickup. Does nothing unless this system was created with {@code expiry.sweep=true}.
+     */
+    public int expireOrders(ActionSink actions) {
+        if (expiries == null) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        long now = now();
+        int discarded = 0;
+        for (ExpiryWheel.Entry entry = expiries.advance(now); entry != null; entry = entry.next) {
+            if (expire(entry.handle, entry.orderId, now, actions)) {
+                discarded++;
             }
-            return;
         }
-        LOGGER.info(" We found hot order on shelf "+hotOrder);
-        if (heater.addOrder(hotOrder)){
-            LOGGER.info(hotOrder.getId()+" Hot order added in heater and removed from shelf");
-            shelf.removeOrder(hotOrder.getId());
-            actions.add(new Action(discardTimeStamp, hotOrder.getId(), Action.MOVE));
-            if(shelf.moveOrder(order)){
-                LOGGER.info(order.getId()+" New order added to shelf and reduced freshness to half "+order.getFreshness());
-                order.setTimestamp(Instant.now());
-                actions.add(new Action(coldOrderPlacedTime, order.getId(), Action.PLACE));
+        metrics.record(Operation.EXPIRE, start);
+        return discarded;
+    }
+
+    public int expireOrders(List<Action> actions) {
+        return expireOrders(ActionSink.of(actions));
+    }
+
+    private boolean expire(int handle, String orderId, long now, ActionSink actions) {
+        if (!orderId.equals(table.id(handle))) {
+            return false; // gone, and the handle may already belong to another order
+        }
+        Storage storage = storageAt(table.location(handle));
+        if (storage == null) {
+            return false;
+        }
+        Order order;
+        storage.getLock().lock();
+        try {
+            // the order may have moved or been given a later expiry since the read above; that is tracked separately
+            if (!orderId.equals(table.id(handle)) || storageAt(table.location(handle)) != storage) {
+                return false;
+            }
+            order = table.order(handle); // the row is released with the order
+            if (expiresAt(order, order.getDeadline()) > now || !storage.removeOrder(orderId)) {
+                return false;
             }
+        } finally {
+            storage.getLock().unlock();
         }
+        Tracer.trace(TraceEvent.SPOILED, orderId, storage.getLocation().getName());
+        emit(actions, now, order, Action.DISCARD_CODE);
+        if (storage != shelf) {
+            rebalance(order.getTemperature(), actions);
+        }
+        return true;
     }
 
-    public void handleRoomOrders(Order order, List<Action> actions){
-        LOGGER.info("Order with Room temperature received");
-        long shelfOrderPlacedTime = order.getTimestamp();
-        if(shelf.addOrder(order)){
-            LOGGER.info("Normal Order put on shelf");
-            order.setTimestamp(Instant.now());
-            actions.add(new Action(shelfOrderPlacedTime, order.getId(), Action.PLACE));
-            return;
+    /**
+     * Writes a snapshot of the cooler, heater and shelf contents to the directory and drops the journal segments it
+     * makes redundant. Returns the number of orders saved.
+     *
+     * <p>The capture is fuzzy: the journal position is read first, then each storage is copied under its own lock, one
+     * at a time, so placements are held up by one storage copy at most and never by the file write. Every action
+     * journaled before that position had already changed the storages, so the copies reflect it; actions racing with
+     * the copies are journaled after it and replayed on recovery, which tolerates them finding the snapshot already
+     * ahead. Orders only move from the shelf to the cooler and heater, which are copied first, so no order is caught
+     * twice.
+     */
+    public int snapshot(Path directory) throws IOException {
+        long journalPosition = journal == null ? 0 : journal.position();
+        Map<Location, List<Order>> orders = new EnumMap<>(Location.class);
+        for (Storage storage : new Storage[]{cooler, heater, shelf}) {
+            List<Order> held = new ArrayList<>(storage.size());
+            storage.getLock().lock();
+            try {
+                storage.copyOrders(held);
+            } finally {
+                storage.getLock().unlock();
+            }
+            orders.put(storage.getLocation(), held);
         }
-        LOGGER.info("Shelf is full so checking space in heater and if heater doesn't has space then we will check in cooler");
-        long discardTimeStamp = ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now());
-        if (!heater.isFull()){
-            LOGGER.info("Heater has space");
-            Order hotOrder = shelf.getLeastFreshHotOrder();
-            if(hotOrder != null){
-                LOGGER.info("We found a hot order on shelf, so moving it from shelf to heater");
-                if (heater.addOrder(hotOrder)){
-                    shelf.removeOrder(hotOrder.getId());
-                    actions.add(new Action(discardTimeStamp, hotOrder.getId(), Action.MOVE));
-                    if(shelf.moveOrder(order)){
-                        order.setTimestamp(Instant.now());
-                        actions.add(new Action(shelfOrderPlacedTime, order.getId(), Action.PLACE));
-                        return;
-                    }
+        Snapshot snapshot = new Snapshot(journalPosition, orders);
+        snapshot.write(directory.resolve(Snapshot.FILE));
+        if (journal != null) {
+            journal.truncate(journalPosition);
+        }
+        return snapshot.size();
+    }
+
+    /**
+     * Restores the latest snapshot in the directory, if any, into this system's storages, which should be empty, then
+     * replays the journal records written after it and appends the replayed actions to the sink. Restart time is
+     * therefore bounded by the snapshot size plus the journal tail, not by the whole history. Orders are restored with
+     * the freshness and placement time they were stored with. Replayed actions are not journaled again. Returns the
+     * number of records replayed.
+     *
+     * <p>A placement on a fast path is journaled after its storage lock is released, so records can be out of order
+     * with the changes they describe, and a fuzzy snapshot may already hold changes journaled after its position. The
+     * tail is therefore not applied record by record: it is reduced to each order's last record, every order it
+     * mentions is taken out of the restored storages, and the orders whose last record placed them are put back where
+     * it says. Order ids are never reused, so a placement of an order already seen leaving is skipped.
+     */
+    public long recover(Path journalDirectory, ActionSink actions) throws IOException {
+        Snapshot snapshot = Snapshot.read(journalDirectory.resolve(Snapshot.FILE));
+        long from = 0;
+        if (snapshot != null) {
+            int restored = 0;
+            for (Storage storage : new Storage[]{cooler, heater, shelf}) {
+                List<Order> orders = snapshot.getOrders(storage.getLocation());
+                restored += storage.restore(orders);
+                for (Order order : orders) {
+                    track(order);
                 }
             }
-        } else if (!cooler.isFull()) {
-            LOGGER.info("Shelf was full, Heater was also full but cooler has space");
-            Order coldOrder = shelf.getLeastFreshColdOrder();
-            if(coldOrder != null){
-                LOGGER.info("We found a cold order on shelf, so moving it from shelf to cooler");
-                if (cooler.addOrder(coldOrder)){
-                    shelf.removeOrder(coldOrder.getId());
-                    actions.add(new Action(discardTimeStamp, coldOrder.getId(), Action.MOVE));
-                    if(shelf.moveOrder(order)){
-                        order.setTimestamp(Instant.now());
-                        actions.add(new Action(shelfOrderPlacedTime, order.getId(), Action.PLACE));
-                        return;
-                    }
-                }
+            from = snapshot.getJournalPosition();
+            LOGGER.info("Restored " + restored + " orders from the snapshot in " + journalDirectory);
+        }
+        long[] replayed = new long[1];
+        Set<String> gone = new HashSet<>();
+        Map<String, Map.Entry<Location, Order>> placed = new LinkedHashMap<>(); // last placement, in journal order
+        Journal.replay(journalDirectory, from, (timestamp, action, location, order) -> {
+            replayed[0]++;
+            actions.append(timestamp, order.getId(), action);
+            metrics.count(action);
+            placed.remove(order.getId());
+            if (action != Action.PLACE_CODE && action != Action.MOVE_CODE) {
+                gone.add(order.getId());
+            } else if (!gone.contains(order.getId())) {
+                placed.put(order.getId(), Map.entry(location, order));
+            }
+        });
+        // Everything the tail touched is taken out first, so the final placements fit wherever they fitted before.
+        for (Storage storage : new Storage[]{cooler, heater, shelf}) {
+            for (String id : gone) {
+                storage.removeOrder(id);
+            }
+            for (String id : placed.keySet()) {
+                storage.removeOrder(id);
             }
         }
-        Order discardedOrder = shelf.getOrderToDiscard();
-        if (discardedOrder != null) {
-            shelf.removeOrder(discardedOrder.getId());
-            actions.add(new Action(discardTimeStamp, discardedOrder.getId(), Action.DISCARD));
+        for (Map.Entry<Location, Order> last : placed.values()) {
+            Storage storage = storageAt(last.getKey());
+            Order order = last.getValue();
+            if (storage == null) {
+                continue;
+            }
+            if (storage.addOrder(order)) {
+                track(order);
+            } else {
+                LOGGER.warn("Could not restore order " + order.getId() + " to a full " + last.getKey());
+            }
         }
-        if (shelf.moveOrder(order)){
-            order.setTimestamp(Instant.now());
-            actions.add(new Action(shelfOrderPlacedTime, order.getId(), Action.PLACE)); //Commented
+        return replayed[0];
+    }
+
+    private Storage storageAt(Location location) {
+        switch (location) {
+            case COOLER:
+                return cooler;
+            case HEATER:
+                return heater;
+            case SHELF:
+                return shelf;
+            default:
+                return null;
         }
     }
 
-}
+    private long now() {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, clock.instant());
+    }
 
+    public void handleHotOrders(Order order, List<Action> actions){
+        handleHotOrders(order, ActionSink.of(actions));
+    }
+
+    public void handleHotOrders(Order order, ActionSink actions){
+        place(order, heater, actions);
+    }
+
+    public void handleColdOrders(Order order, List<Action> actions){
+        handleColdOrders(order, ActionSink.of(actions));
+    }
+
+    public void handleColdOrders(Order order, ActionSink actions){
+        place(order, cooler, actions);
+    }
+
+    public void handleRoomOrders(Order order, List<Action> actions){
+        handleRoomOrders(order, ActionSink.of(actions));
+    }
+
+    public void handleRoomOrders(Order order, ActionSink actions){
+        place(order, null, actions);
+    }
+
+    /**
+     * Places the order in its ideal storage, or on the shelf if that is full, without any lock beyond the one storage
+     * being tried. Only when both are full are all three locks taken and the placement policy asked to free a shelf
+     * slot. Room orders have no ideal storage.
+     */
+    private void place(Order order, Storage ideal, ActionSink actions) {
+        long start = System.nanoTime();
+        long placedTime = order.getTimestamp();
+        Operation[] branches = BRANCHES[order.getTemperature().ordinal()];
+        if (placeIdeal(order, ideal, placedTime, actions, now())) {
+            metrics.record(branches[IDEAL], start);
+            return;
+        }
+        if (shelve(order, placedTime, actions, false, now())) {
+            metrics.record(branches[SHELF], start);
+            return;
+        }
+        cooler.getLock().lock();
+        heater.getLock().lock();
+        shelf.getLock().lock();
+        try {
+            metrics.record(handleOverflow(order, actions, placedTime, now()), start);
+        } finally {
+            shelf.getLock().unlock();
+            heater.getLock().unlock();
+            cooler.getLock().unlock();
+        }
+    }
+
+    private Storage idealFor(Temperature temperature) {
+        return temperature == Temperature.HOT ? heater : temperature == Temperature.COLD ? cooler : null;
+    }
+
+    /**
+     * Puts the order in its ideal storage, if it has one, and records it if it fit. Orders placed in the cooler are
+     * restamped with the current time before they are stored, so the deadline the storage fixes counts from it; hot
+     * orders keep their arrival timestamp.
+     */
+    private boolean placeIdeal(Order order, Storage ideal, long placedTime, ActionSink actions, long now) {
+        if (ideal == null) {
+            return false;
+        }
+        if (ideal != heater) {
+            order.setTimestamp(now);
+        }
+        if (!ideal.addOrder(order)) {
+            return false;
+        }
+        Tracer.trace(TraceEvent.PLACED, order.getId(), ideal.getLocation().getName());
+        emit(actions, placedTime, order, Action.PLACE_CODE);
+        return true;
+    }
+
+    /**
+     * Runs with the cooler, heater and shelf locks held, so the capacity checks below cannot go stale. The ideal
+     * storage is tried again first, since a pickup may have freed a slot after the lock-free attempt found it full,
+     * and an order that fits there must not be shelved at half freshness. An order that still does not fit once the
+     * policy has had its go is discarded. Returns the branch taken, for the metrics.
+     */
+    private Operation handleOverflow(Order order, ActionSink actions, long placedTime, long now) {
+        Operation[] branches = BRANCHES[order.getTemperature().ordinal()];
+        if (placeIdeal(order, idealFor(order.getTemperature()), placedTime, actions, now)) {
+            return branches[IDEAL];
+        }
+        if (shelve(order, placedTime, actions, false, now)) {
+            return branches[SHELF];
+        }
+        Tracer.trace(TraceEvent.SHELF_FULL, order.getId(), "heater and cooler");
+        boolean moved = makeRoomOnShelf(order, actions, now) == MOVED;
+        if (!shelve(order, placedTime, actions, true, now)) {
+            Tracer.trace(TraceEvent.DISCARDED, order.getId());
+            emit(actions, now, order, Action.DISCARD_CODE);
+            table.release(order);
+            return branches[DISCARD];
+        }
+        return branches[moved ? MOVE : DISCARD];
+    }
+
+    /**
+     * Puts the order on the shelf, halving the freshness of hot and cold orders and of room orders that displaced
+     * another order, and records it if it fit. Orders are restamped with the current time before they are stored, so
+     * the deadline the shelf fixes counts from it, except that hot orders keep their arrival timestamp unless they
+     * displaced another order.
+     */
+    private boolean shelve(Order order, long placedTime, ActionSink actions, boolean displaced, long now) {
+        if (displaced || order.getTemperature() != Temperature.HOT) {
+            order.setTimestamp(now);
+        }
+        if (order.getTemperature() == Temperature.ROOM && !displaced) {
+            if (!shelf.addOrder(order)) {
+                return false;
+            }
+            Tracer.trace(TraceEvent.PLACED, order.getId(), "shelf");
+        } else {
+            if (!shelf.moveOrder(order)) {
+                return false;
+            }
+            Tracer.trace(TraceEvent.SHELVED, order.getId(), order.getFreshness());
+        }
+        emit(actions, placedTime, order, Action.PLACE_CODE);
+        return true;
+    }
+
+}
@@ -0,0 +1,105 @@
+package com.css.challenge.management;
+
+import com.css.challenge.client.ActionSink;
+import com.css.challenge.client.Order;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PickupScheduler fires each order's pickup exactly once at the deadline it was given when placed. Pending pickups
+ * wait in a {@link DelayQueue}, so scheduling is O(log n) per order and the worker thread only wakes when a pickup
+ * is due, instead of periodically scanning every placed order.
+ */
+public class PickupScheduler {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PickupScheduler.class);
+
+    private static final class ScheduledPickup implements Delayed {
+        final Order order; // null marks the end of the schedule
+        final long due; // System.nanoTime() when the pickup is due
+
+        ScheduledPickup(Order order, long due) {
+            this.order = order;
+            this.due = due;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(due - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(due, ((ScheduledPickup) other).due);
+        }
+    }
+
+    private final OrderManagementSystem oms;
+    private final ActionSink actions;
+    private final DelayQueue<ScheduledPickup> pickups;
+    private final Thread worker;
+    private long lastDue = System.nanoTime();
+    private boolean shutdown;
+
+    public PickupScheduler(OrderManagementSystem oms, ActionSink actions) {
+        this.oms = oms;
+        this.actions = actions;
+        this.pickups = new DelayQueue<>();
+        this.worker = new Thread(this::run, "order-pickup");
+    }
+
+    public void start() {
+        worker.start();
+    }
+
+    /** Schedules the pickup of a just placed order after the given delay. */
+    public synchronized void schedule(Order order, Duration delay) {
+        if (shutdown) {
+            throw new IllegalStateException("Pickup scheduler is shut down");
+        }
+        long due = System.nanoTime() + delay.toNanos();
+        lastDue = Math.max(lastDue, due);
+        pickups.add(new ScheduledPickup(order, due));
+    }
+
+    /** Stops accepting orders. The worker exits once every pickup scheduled so far has fired. */
+    public synchronized void shutdown() {
+        if (!shutdown) {
+            shutdown = true;
+            pickups.add(new ScheduledPickup(null, lastDue + 1));
+        }
+    }
+
+    /**
+     * Waits for the worker to fire the remaining pickups. After the timeout the pickups still pending are dropped and
+     * false is returned, but only once the worker has exited, so no pickup is still running when this returns.
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        worker.join(Math.max(1, unit.toMillis(timeout)));
+        if (!worker.isAlive()) {
+            return true;
+        }
+        worker.interrupt(); // a pickup already inside the OMS completes; the worker then stops at its next take
+        worker.join();
+        return false;
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                ScheduledPickup pickup = pickups.take();
+                if (pickup.order == null) {
+                    return;
+                }
+                oms.pickupOrder(pickup.order, actions);
+            }
+        } catch (InterruptedException e) {
+            LOGGER.info("Pickup scheduler stopped with " + pickups.size() + " pickups pending");
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.css.challenge.management;
+
+import com.css.challenge.client.Order;
+import com.css.challenge.config.Config;
+import com.css.challenge.storage.Shelf;
+import com.css.challenge.storage.Storage;
+
+import java.time.Duration;
+
+/**
+ * PlacementPolicy decides how an OrderManagementSystem frees a shelf slot when an order fits neither its ideal storage
+ * nor the shelf. The system places orders in their ideal storage or on the shelf by itself; a policy is only consulted
+ * on overflow. It may move a shelf order to a storage that has room or discard one.
+ *
+ * <p>Policies run with the cooler, heater and shelf locks held, on the placement path, so they must decide in
+ * O(log n) or better from the storage indexes, e.g. the shelf's freshness heaps, and must not modify the storages
+ * themselves.
+ */
+public interface PlacementPolicy {
+
+    /**
+     * Chooses the shelf order to move or discard so that the incoming order fits on the shelf, or returns null if the
+     * shelf is empty. The incoming order may be null, when a caller only asks which order would go. Now is the current
+     * time as a unix timestamp in microseconds.
+     */
+    Eviction evict(Order incoming, Storage cooler, Storage heater, Shelf shelf, long now);
+
+    /** The policy selected by {@code placement.policy}, for pickups expected between min and max after placement. */
+    static PlacementPolicy of(Config config, Duration min, Duration max) {
+        return config.isLookaheadPlacement() ? new LookaheadPlacementPolicy(min, max) : new DefaultPlacementPolicy();
+    }
+}
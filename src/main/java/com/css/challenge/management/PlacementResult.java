@@ -0,0 +1,40 @@
+package com.css.challenge.management;
+
+import com.css.challenge.client.Action;
+import com.css.challenge.storage.Location;
+
+import java.util.List;
+
+/**
+ * PlacementResult is the outcome of one asynchronous placement or pickup: every action it produced, including moves
+ * and discards of other orders it caused, and where the order was left afterwards. Location is NONE once the order
+ * has been picked up or discarded.
+ */
+public class PlacementResult {
+    private final String orderId;
+    private final List<Action> actions;
+    private final Location location;
+
+    public PlacementResult(String orderId, List<Action> actions, Location location) {
+        this.orderId = orderId;
+        this.actions = List.copyOf(actions);
+        this.location = location;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public List<Action> getActions() {
+        return actions;
+    }
+
+    public Location getLocation() {
+        return location;
+    }
+
+    @Override
+    public String toString() {
+        return "{orderId: " + orderId + ", location: " + location + ", actions: " + actions + " }";
+    }
+}
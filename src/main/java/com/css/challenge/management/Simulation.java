@@ -0,0 +1,112 @@
+package com.css.challenge.management;
+
+import com.css.challenge.client.Action;
+import com.css.challenge.client.ActionSink;
+import com.css.challenge.client.Order;
+import com.css.challenge.config.Config;
+import com.css.challenge.storage.PickupWindow;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulation is a discrete-event version of the harness in Main. Orders are placed every rate and picked up after a
+ * random delay in [min, max), exactly like the threaded harness, but time is a {@link VirtualClock} advanced from a
+ * priority queue of timestamped events, so nothing ever sleeps and millions of orders run in seconds. The returned
+ * actions are what the threaded harness would submit for the same schedule.
+ */
+public class Simulation {
+
+    private static final int PLACE = 0;
+    private static final int PICKUP = 1;
+
+    private static final class Event implements Comparable<Event> {
+        final long time; // unix timestamp in microseconds
+        final long sequence;
+        final int type;
+        final Order order;
+
+        Event(long time, long sequence, int type, Order order) {
+            this.time = time;
+            this.sequence = sequence;
+            this.type = type;
+            this.order = order;
+        }
+
+        @Override
+        public int compareTo(Event other) {
+            int byTime = Long.compare(time, other.time);
+            return byTime != 0 ? byTime : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    private final long rate;
+    private final long min;
+    private final long max;
+    private final Random random;
+
+    public Simulation(Duration rate, Duration min, Duration max, long seed) {
+        this.rate = TimeUnit.NANOSECONDS.toMicros(rate.toNanos());
+        this.min = TimeUnit.NANOSECONDS.toMicros(min.toNanos());
+        this.max = TimeUnit.NANOSECONDS.toMicros(max.toNanos());
+        this.random = seed == 0 ? new Random() : new Random(seed);
+    }
+
+    /** Runs the orders through a fresh OrderManagementSystem starting at the current wall-clock time. */
+    public List<Action> run(List<Order> orders) {
+        return run(orders, ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now()));
+    }
+
+    public List<Action> run(List<Order> orders, long startMicros) {
+        List<Action> actions = new ArrayList<>();
+        run(orders.iterator(), startMicros, ActionSink.of(actions));
+        return actions;
+    }
+
+    /**
+     * Runs the orders and appends actions to the sink, e.g. an {@link com.css.challenge.client.ActionLog}. Orders are
+     * pulled from the iterator only when their arrival comes up, so they can be streamed in while parsing.
+     */
+    public void run(Iterator<Order> arrivals, long startMicros, ActionSink actions) {
+        VirtualClock clock = new VirtualClock(startMicros);
+        OrderManagementSystem oms = new OrderManagementSystem(clock);
+        PickupWindow window = new PickupWindow(Duration.of(min, ChronoUnit.MICROS),
+                Duration.of(max, ChronoUnit.MICROS));
+        oms.setPickupWindow(window);
+        oms.setPlacementPolicy(PlacementPolicy.of(Config.get(), window.getMin(), window.getMax()));
+        arrivals = oms.getOrderTable().intern(arrivals);
+        PriorityQueue<Event> events = new PriorityQueue<>();
+        long sequence = 0;
+
+        // Placements are scheduled one at a time as the previous one fires, so the queue only ever holds the next
+        // arrival plus the pickups that are still pending.
+        if (arrivals.hasNext()) {
+            events.add(new Event(startMicros, sequence++, PLACE, arrivals.next()));
+        }
+        while (!events.isEmpty()) {
+            Event event = events.poll();
+            clock.advanceTo(event.time);
+            if (event.type == PLACE) {
+                event.order.setTimestamp(clock.instant());
+                oms.placeOrder(event.order, actions);
+                events.add(new Event(event.time + pickupDelay(), sequence++, PICKUP, event.order));
+                if (arrivals.hasNext()) {
+                    events.add(new Event(event.time + rate, sequence++, PLACE, arrivals.next()));
+                }
+            } else {
+                oms.pickupOrder(event.order, actions);
+            }
+        }
+    }
+
+    private long pickupDelay() {
+        return max > min ? min + (long) (random.nextDouble() * (max - min)) : min;
+    }
+}
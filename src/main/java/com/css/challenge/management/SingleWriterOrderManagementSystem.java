@@ -0,0 +1,214 @@
+package com.css.challenge.management;
+
+import com.css.challenge.client.ActionSink;
+import com.css.challenge.client.Order;
+import com.css.challenge.journal.Journal;
+
+import java.time.Clock;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * SingleWriterOrderManagementSystem applies every placement and pickup on one dedicated writer thread, in the style of
+ * a disruptor. Callers publish commands into a preallocated ring of slots: a slot is claimed with one atomic
+ * increment, filled in, and published with a volatile write of its sequence; the writer applies commands in claim
+ * order and hands each slot back through the same sequence, which is the command's completion. Nothing on the way is
+ * a lock or a queue node, and callers still see the synchronous {@link OrderManagementSystem} API, so the two modes
+ * can be swapped and benchmarked against each other.
+ *
+ * <p>Because only the writer thread ever takes the storage locks, they are never contended. The locks stay in place
+ * because batch placement, recovery, snapshots and expiry sweeps still run on their callers' threads. Action sinks
+ * passed to placeOrder and pickupOrder are called on the writer thread.
+ *
+ * <p>Slot sequences cycle through three states for the command claimed at position p: p means free, p + 1 published
+ * and p + 2 done. Freeing a done slot advances its sequence by the ring size, to the next lap's free state.
+ *
+ * <p>Closing claims the last position with a stop command and sets the CLOSED bit of the claim counter in the same
+ * step, so every command is claimed either before the stop, and applied, or not at all. A command that fails, even
+ * with an Error, fails only its caller; the writer goes on with the next one.
+ */
+public class SingleWriterOrderManagementSystem extends OrderManagementSystem implements AutoCloseable {
+    public static final int DEFAULT_RING_SIZE = 1024;
+    private static final int SPIN_LIMIT = 64; // busy waits before yielding
+    private static final int YIELD_LIMIT = 128; // busy waits and yields before parking
+    private static final long CLOSED = Long.MIN_VALUE; // set in the claim counter once the stop command is claimed
+
+    private static final class Slot {
+        volatile long sequence;
+        volatile Thread waiter; // caller parked until the command is done
+        Order order; // null asks the writer to stop
+        ActionSink actions;
+        boolean pickup;
+        Throwable failure;
+
+        Slot(long sequence) {
+            this.sequence = sequence;
+        }
+    }
+
+    private final Slot[] slots;
+    private final int mask;
+    private final AtomicLong claimed = new AtomicLong();
+    private final Thread writer;
+    private volatile boolean writerParked;
+
+    public SingleWriterOrderManagementSystem() {
+        this(Clock.systemUTC(), null, DEFAULT_RING_SIZE);
+    }
+
+    /** Creates a system with a ring of the given power-of-two size and starts its writer thread. */
+    public SingleWriterOrderManagementSystem(Clock clock, Journal journal, int ringSize) {
+        super(clock, journal);
+        if (ringSize < 4 || Integer.bitCount(ringSize) != 1) {
+            throw new IllegalArgumentException("Ring size must be a power of two of at least 4: " + ringSize);
+        }
+        this.slots = new Slot[ringSize];
+        for (int i = 0; i < ringSize; i++) {
+            slots[i] = new Slot(i);
+        }
+        this.mask = ringSize - 1;
+        this.writer = new Thread(this::run, "oms-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @Override
+    public void placeOrder(Order order, ActionSink actions) {
+        execute(order, actions, false);
+    }
+
+    @Override
+    public void pickupOrder(Order order, ActionSink actions) {
+        execute(order, actions, true);
+    }
+
+    private void execute(Order order, ActionSink actions, boolean pickup) {
+        if (Thread.currentThread() == writer) {
+            apply(order, actions, pickup); // e.g. a sink placing follow-up orders; waiting on itself would hang
+            return;
+        }
+        long position = claim(false);
+        if (position < 0) {
+            throw new IllegalStateException("Order management system is closed");
+        }
+        publish(position, order, actions, pickup);
+    }
+
+    /**
+     * Claims the next position, setting the CLOSED bit as well when claiming the stop command. Returns -1 once the
+     * system is closed, so no command can be claimed behind the stop, where the writer would never apply it.
+     */
+    private long claim(boolean stop) {
+        while (true) {
+            long current = claimed.get();
+            if ((current & CLOSED) != 0) {
+                return -1;
+            }
+            if (claimed.compareAndSet(current, stop ? (current + 1) | CLOSED : current + 1)) {
+                return current;
+            }
+        }
+    }
+
+    /** Publishes the command into the claimed slot and waits until the writer has applied it. */
+    private void publish(long position, Order order, ActionSink actions, boolean pickup) {
+        Slot slot = slots[(int) position & mask];
+        while (slot.sequence != position) {
+            Thread.yield(); // the ring has wrapped onto a command whose caller has not collected it yet
+        }
+        slot.order = order;
+        slot.actions = actions;
+        slot.pickup = pickup;
+        slot.sequence = position + 1;
+        if (writerParked) {
+            LockSupport.unpark(writer);
+        }
+
+        for (int spins = 0; slot.sequence != position + 2; spins++) {
+            if (spins < SPIN_LIMIT) {
+                Thread.onSpinWait();
+            } else if (spins < YIELD_LIMIT) {
+                Thread.yield(); // lets the writer run at once when there are fewer cores than busy threads
+            } else {
+                slot.waiter = Thread.currentThread();
+                if (slot.sequence != position + 2) {
+                    LockSupport.park(this);
+                }
+            }
+        }
+        slot.waiter = null;
+        Throwable failure = slot.failure;
+        slot.order = null;
+        slot.actions = null;
+        slot.failure = null;
+        slot.sequence = position + slots.length;
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        } else if (failure instanceof Error) {
+            throw (Error) failure;
+        } else if (failure != null) {
+            throw new IllegalStateException("Could not apply order " + order.getId(), failure);
+        }
+    }
+
+    private void run() {
+        for (long cursor = 0; ; cursor++) {
+            Slot slot = slots[(int) cursor & mask];
+            for (int spins = 0; slot.sequence != cursor + 1; spins++) {
+                if (spins < SPIN_LIMIT) {
+                    Thread.onSpinWait();
+                } else if (spins < YIELD_LIMIT) {
+                    Thread.yield();
+                } else {
+                    writerParked = true;
+                    if (slot.sequence != cursor + 1) {
+                        LockSupport.park(this);
+                    }
+                    writerParked = false;
+                }
+            }
+            Order order = slot.order;
+            if (order != null) {
+                try {
+                    apply(order, slot.actions, slot.pickup);
+                } catch (Throwable e) {
+                    slot.failure = e; // rethrown to the caller, the writer carries on
+                }
+            }
+            slot.sequence = cursor + 2;
+            Thread waiter = slot.waiter;
+            if (waiter != null) {
+                LockSupport.unpark(waiter);
+            }
+            if (order == null) {
+                return;
+            }
+        }
+    }
+
+    private void apply(Order order, ActionSink actions, boolean pickup) {
+        if (pickup) {
+            super.pickupOrder(order, actions);
+        } else {
+            super.placeOrder(order, actions);
+        }
+    }
+
+    /**
+     * Stops the writer once every command claimed so far has been applied. Placements and pickups racing with the
+     * close are either applied first or refused.
+     */
+    @Override
+    public void close() {
+        long position = claim(true);
+        if (position < 0) {
+            return;
+        }
+        publish(position, null, null, false);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
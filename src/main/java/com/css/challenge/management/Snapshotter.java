@@ -0,0 +1,71 @@
+package com.css.challenge.management;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Snapshotter snapshots an OrderManagementSystem into its journal directory at a fixed interval from a daemon thread,
+ * which keeps the journal that a restart has to replay short. Closing it takes a final snapshot.
+ */
+public class Snapshotter implements AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(Snapshotter.class);
+
+    private final OrderManagementSystem oms;
+    private final Path directory;
+    private final Duration interval;
+    private final ScheduledExecutorService executor;
+
+    public Snapshotter(OrderManagementSystem oms, Path directory, Duration interval) {
+        this.oms = oms;
+        this.directory = directory;
+        this.interval = interval;
+        this.executor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "snapshotter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start() {
+        long period = interval.toMillis();
+        executor.scheduleWithFixedDelay(this::snapshot, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    private void snapshot() {
+        try {
+            long start = System.nanoTime();
+            int orders = oms.snapshot(directory);
+            LOGGER.info("Snapshot of " + orders + " orders took " + (System.nanoTime() - start) / 1000 + " us");
+        } catch (IOException | RuntimeException e) {
+            // a thrown task would cancel every later snapshot
+            LOGGER.warn("Could not snapshot into {}: {}", directory, e.getMessage());
+        }
+    }
+
+    /**
+     * Waits for a running snapshot to finish and takes the final one. If the running snapshot does not finish in time,
+     * or the wait is interrupted, the final snapshot is skipped so two snapshots never write at once; the interrupt is
+     * kept, and the journal still covers everything since the last snapshot.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(interval.toMillis(), TimeUnit.MILLISECONDS)) {
+                LOGGER.warn("A snapshot into {} is still running, skipping the final one", directory);
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        snapshot();
+    }
+}
@@ -0,0 +1,47 @@
+package com.css.challenge.management;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+
+/** VirtualClock is a clock that only moves when told to, with microsecond resolution. */
+public class VirtualClock extends Clock {
+    private volatile long micros; // unix timestamp in microseconds
+
+    public VirtualClock(long micros) {
+        this.micros = micros;
+    }
+
+    public long micros() {
+        return micros;
+    }
+
+    public void advanceTo(long micros) {
+        if (micros < this.micros) {
+            throw new IllegalArgumentException("Virtual time cannot go backwards: " + micros + " < " + this.micros);
+        }
+        this.micros = micros;
+    }
+
+    @Override
+    public Instant instant() {
+        return Instant.EPOCH.plus(micros, ChronoUnit.MICROS);
+    }
+
+    @Override
+    public long millis() {
+        return micros / 1000;
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return Clock.fixed(instant(), zone);
+    }
+}
@@ -0,0 +1,88 @@
+package com.css.challenge.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+/**
+ * IngressMetrics collects the queue depth, queueing time and admission counters of one ingress queue. Like
+ * {@link OrderMetrics}, counters are LongAdders and the wait time histogram is preallocated, so producers recording
+ * concurrently neither contend nor allocate; the current depth is read from the queue only when a snapshot is taken.
+ */
+public class IngressMetrics implements IngressMetricsMXBean {
+    public static final String OBJECT_NAME = "com.css.challenge:type=IngressMetrics";
+
+    private final int capacity;
+    private final IntSupplier depth;
+    private final LatencyHistogram waitTime = new LatencyHistogram();
+    private final LongAccumulator maxDepth = new LongAccumulator(Math::max, 0);
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+
+    public IngressMetrics(int capacity, IntSupplier depth) {
+        this.capacity = capacity;
+        this.depth = depth;
+    }
+
+    /** Counts an order let into the queue, which is then the given number of orders deep. */
+    public void accepted(int depth) {
+        accepted.increment();
+        maxDepth.accumulate(depth);
+    }
+
+    public void rejected() {
+        rejected.increment();
+    }
+
+    public void shed() {
+        shed.increment();
+    }
+
+    /** Records how long an order waited in the queue, in nanoseconds. */
+    public void recordWait(long nanos) {
+        waitTime.record(nanos);
+    }
+
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return depth.getAsInt();
+    }
+
+    @Override
+    public int getMaxQueueDepth() {
+        return (int) maxDepth.get();
+    }
+
+    @Override
+    public long getAccepted() {
+        return accepted.sum();
+    }
+
+    @Override
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    @Override
+    public long getShed() {
+        return shed.sum();
+    }
+
+    @Override
+    public LatencySnapshot getWaitTime() {
+        return waitTime.snapshot();
+    }
+
+    @Override
+    public String toString() {
+        return "queued: " + getQueueDepth() + '/' + capacity + " (max " + getMaxQueueDepth() + ")"
+                + ", accepted: " + getAccepted() + ", rejected: " + getRejected() + ", shed: " + getShed()
+                + "\n  wait " + getWaitTime();
+    }
+}
@@ -0,0 +1,27 @@
+package com.css.challenge.metrics;
+
+/**
+ * JMX view of {@link IngressMetrics}, registered as {@value IngressMetrics#OBJECT_NAME}. Wait times are in
+ * nanoseconds.
+ */
+public interface IngressMetricsMXBean {
+
+    int getCapacity();
+
+    /** Orders queued and not yet taken for placement. */
+    int getQueueDepth();
+
+    /** Deepest the queue has been. */
+    int getMaxQueueDepth();
+
+    long getAccepted();
+
+    /** Orders turned away because the queue was full or the pipeline was closing. */
+    long getRejected();
+
+    /** Orders dropped to make room because they were the least fresh. */
+    long getShed();
+
+    /** Time orders spent queued before being taken for placement. */
+    LatencySnapshot getWaitTime();
+}
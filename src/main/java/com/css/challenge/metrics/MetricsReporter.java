@@ -0,0 +1,93 @@
+package com.css.challenge.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MetricsReporter publishes an {@link OrderMetrics}, and the {@link IngressMetrics} of an ingress queue if there is
+ * one, over JMX and logs a snapshot of them at a fixed interval from a daemon thread. Closing it logs a final snapshot
+ * and unregisters the MBeans.
+ */
+public class MetricsReporter implements AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MetricsReporter.class);
+
+    private final OrderMetrics metrics;
+    private final Duration interval;
+    private final ScheduledExecutorService executor;
+    private IngressMetrics ingress;
+    private ObjectName name;
+    private ObjectName ingressName;
+
+    public MetricsReporter(OrderMetrics metrics, Duration interval) {
+        this.metrics = metrics;
+        this.interval = interval;
+        this.executor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "metrics-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /** Also reports the given ingress metrics. Must be called before {@link #start()}. */
+    public void setIngress(IngressMetrics ingress) {
+        this.ingress = ingress;
+    }
+
+    public void start() {
+        name = register(metrics, OrderMetrics.OBJECT_NAME);
+        if (ingress != null) {
+            ingressName = register(ingress, IngressMetrics.OBJECT_NAME);
+        }
+        long period = interval.toMillis();
+        executor.scheduleAtFixedRate(this::report, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    private static ObjectName register(Object bean, String objectName) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName name = new ObjectName(objectName);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(bean, name);
+            return name;
+        } catch (JMException e) {
+            LOGGER.warn("Could not register metrics MBean: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static void unregister(ObjectName name) {
+        if (name != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+            } catch (JMException e) {
+                LOGGER.warn("Could not unregister metrics MBean: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void report() {
+        LOGGER.info("Metrics: " + metrics);
+        if (ingress != null) {
+            LOGGER.info("Ingress: " + ingress);
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        report();
+        unregister(name);
+        unregister(ingressName);
+    }
+}
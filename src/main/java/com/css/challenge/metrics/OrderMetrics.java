@@ -0,0 +1,148 @@
+package com.css.challenge.metrics;
+
+import com.css.challenge.client.Action;
+import com.css.challenge.storage.Storage;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * OrderMetrics collects per-operation latency histograms, action counters and storage occupancy for one
+ * OrderManagementSystem. Counters are LongAdders and histograms are preallocated, so recording from many threads
+ * neither contends nor allocates; occupancy is read from the storages only when a snapshot is taken.
+ */
+public class OrderMetrics implements OrderMetricsMXBean {
+    public static final String OBJECT_NAME = "com.css.challenge:type=OrderMetrics";
+
+    /**
+     * The timed operations: whole placements and pickups, whole batches of them, and the branch each placement
+     * handler took.
+     */
+    public enum Operation {
+        PLACE, PICKUP, PLACE_BATCH, PICKUP_BATCH, EXPIRE,
+        HOT_HEATER, HOT_SHELF, HOT_MOVE, HOT_DISCARD,
+        COLD_COOLER, COLD_SHELF, COLD_MOVE, COLD_DISCARD,
+        ROOM_SHELF, ROOM_MOVE, ROOM_DISCARD
+    }
+
+    private static final Operation[] OPERATIONS = Operation.values();
+
+    private final LatencyHistogram[] latencies = new LatencyHistogram[OPERATIONS.length];
+    private final LongAdder placed = new LongAdder();
+    private final LongAdder moved = new LongAdder();
+    private final LongAdder pickedUp = new LongAdder();
+    private final LongAdder discarded = new LongAdder();
+    private final Storage cooler;
+    private final Storage heater;
+    private final Storage shelf;
+
+    public OrderMetrics(Storage cooler, Storage heater, Storage shelf) {
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = new LatencyHistogram();
+        }
+        this.cooler = cooler;
+        this.heater = heater;
+        this.shelf = shelf;
+    }
+
+    /** Records the time elapsed since startNanos, read from {@link System#nanoTime()}, against the operation. */
+    public void record(Operation operation, long startNanos) {
+        latencies[operation.ordinal()].recordSince(startNanos);
+    }
+
+    /** Counts one action by its {@link Action} code. */
+    public void count(byte action) {
+        switch (action) {
+            case Action.PLACE_CODE:
+                placed.increment();
+                break;
+            case Action.MOVE_CODE:
+                moved.increment();
+                break;
+            case Action.PICKUP_CODE:
+                pickedUp.increment();
+                break;
+            case Action.DISCARD_CODE:
+                discarded.increment();
+                break;
+            default:
+                break;
+        }
+    }
+
+    public LatencyHistogram getLatency(Operation operation) {
+        return latencies[operation.ordinal()];
+    }
+
+    @Override
+    public long getPlaced() {
+        return placed.sum();
+    }
+
+    @Override
+    public long getMoved() {
+        return moved.sum();
+    }
+
+    @Override
+    public long getPickedUp() {
+        return pickedUp.sum();
+    }
+
+    /** Orders discarded to make room plus orders found expired at pickup. */
+    @Override
+    public long getDiscarded() {
+        return discarded.sum();
+    }
+
+    @Override
+    public double getDiscardRate() {
+        long placedOrders = getPlaced();
+        return placedOrders == 0 ? 0 : (double) getDiscarded() / placedOrders;
+    }
+
+    @Override
+    public int getCoolerOccupancy() {
+        return cooler.size();
+    }
+
+    @Override
+    public int getHeaterOccupancy() {
+        return heater.size();
+    }
+
+    @Override
+    public int getShelfOccupancy() {
+        return shelf.size();
+    }
+
+    @Override
+    public Map<String, LatencySnapshot> getLatencies() {
+        Map<String, LatencySnapshot> snapshots = new LinkedHashMap<>();
+        for (Operation operation : OPERATIONS) {
+            LatencySnapshot snapshot = latencies[operation.ordinal()].snapshot();
+            if (snapshot.getCount() > 0) {
+                snapshots.put(operation.name().toLowerCase(), snapshot);
+            }
+        }
+        return snapshots;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder()
+                .append("placed: ").append(getPlaced())
+                .append(", moved: ").append(getMoved())
+                .append(", picked up: ").append(getPickedUp())
+                .append(", discarded: ").append(getDiscarded())
+                .append(String.format(" (%.1f%%)", getDiscardRate() * 100))
+                .append(", cooler: ").append(getCoolerOccupancy()).append('/').append(cooler.getCapacity())
+                .append(", heater: ").append(getHeaterOccupancy()).append('/').append(heater.getCapacity())
+                .append(", shelf: ").append(getShelfOccupancy()).append('/').append(shelf.getCapacity());
+        for (Map.Entry<String, LatencySnapshot> latency : getLatencies().entrySet()) {
+            report.append("\n  ").append(latency.getKey()).append(' ').append(latency.getValue());
+        }
+        return report.toString();
+    }
+}
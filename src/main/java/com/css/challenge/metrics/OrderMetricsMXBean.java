@@ -0,0 +1,27 @@
+package com.css.challenge.metrics;
+
+import java.util.Map;
+
+/** JMX view of {@link OrderMetrics}, registered as {@value OrderMetrics#OBJECT_NAME}. Latencies are in nanoseconds. */
+public interface OrderMetricsMXBean {
+
+    long getPlaced();
+
+    long getMoved();
+
+    long getPickedUp();
+
+    long getDiscarded();
+
+    /** Discarded orders as a fraction of placed orders. */
+    double getDiscardRate();
+
+    int getCoolerOccupancy();
+
+    int getHeaterOccupancy();
+
+    int getShelfOccupancy();
+
+    /** Latency summaries keyed by operation name, for operations that have been recorded at least once. */
+    Map<String, LatencySnapshot> getLatencies();
+}
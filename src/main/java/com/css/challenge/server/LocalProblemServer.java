@@ -0,0 +1,196 @@
+package com.css.challenge.server;
+
+import com.css.challenge.client.Order;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * LocalProblemServer is an in-process stand-in for the challenge server, implementing the
+ * {@code /interview/challenge/new} and {@code /interview/challenge/solve} contract on localhost so the regular
+ * Client and Main path can run with synthetic load and no network. Problems come from an {@link OrderGenerator}
+ * and are streamed out; solutions are parsed as a stream and answered with action and discard counts.
+ */
+public class LocalProblemServer implements AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LocalProblemServer.class);
+    private static final JsonFactory JSON = new JsonFactory();
+
+    /** Generator settings for every problem served; the seed comes from the request. */
+    public static class Settings {
+        final int orders;
+        final double hotWeight;
+        final double coldWeight;
+        final double roomWeight;
+        final int minFreshness;
+        final int maxFreshness;
+
+        public Settings(int orders, double hotWeight, double coldWeight, double roomWeight,
+                        int minFreshness, int maxFreshness) {
+            this.orders = orders;
+            this.hotWeight = hotWeight;
+            this.coldWeight = coldWeight;
+            this.roomWeight = roomWeight;
+            this.minFreshness = minFreshness;
+            this.maxFreshness = maxFreshness;
+            OrderGenerator.validate(orders, hotWeight, coldWeight, roomWeight, minFreshness, maxFreshness);
+        }
+    }
+
+    private final Settings settings;
+    private final HttpServer server;
+    private final Map<String, Integer> problems = new ConcurrentHashMap<>();
+    private final AtomicLong nextTestId = new AtomicLong(1);
+
+    public LocalProblemServer(int port, Settings settings) throws IOException {
+        this.settings = settings;
+        this.server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        this.server.createContext("/interview/challenge/new", this::newProblem);
+        this.server.createContext("/interview/challenge/solve", this::solve);
+        this.server.setExecutor(Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "local-problem-server");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    public void start() {
+        server.start();
+        LOGGER.info("Local problem server listening on {}", getEndpoint());
+    }
+
+    /** Base URL to pass to Client, e.g. {@code http://localhost:54321}. */
+    public String getEndpoint() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void newProblem(HttpExchange exchange) throws IOException {
+        try {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                respond(exchange, 405, "Method not allowed");
+                return;
+            }
+            Map<String, String> query = query(exchange);
+            long seed = parseSeed(query.get("seed"));
+            String testId = "local-" + nextTestId.getAndIncrement();
+            problems.put(testId, settings.orders);
+
+            OrderGenerator generator = new OrderGenerator(settings.orders, seed, settings.hotWeight,
+                    settings.coldWeight, settings.roomWeight, settings.minFreshness, settings.maxFreshness);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.getResponseHeaders().add("x-test-id", testId);
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream body = exchange.getResponseBody();
+                 JsonGenerator json = JSON.createGenerator(body)) {
+                json.writeStartArray();
+                while (generator.hasNext()) {
+                    Order order = generator.next();
+                    json.writeStartObject();
+                    json.writeStringField("id", order.getId());
+                    json.writeStringField("name", order.getName());
+                    json.writeStringField("temp", order.getTemp());
+                    json.writeNumberField("freshness", order.getFreshness());
+                    json.writeEndObject();
+                }
+                json.writeEndArray();
+            }
+        } catch (IllegalArgumentException e) {
+            respond(exchange, 400, e.getMessage());
+        }
+    }
+
+    private void solve(HttpExchange exchange) throws IOException {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            respond(exchange, 405, "Method not allowed");
+            return;
+        }
+        String testId = exchange.getRequestHeaders().getFirst("x-test-id");
+        Integer orders = testId == null ? null : problems.remove(testId);
+        if (orders == null) {
+            respond(exchange, 404, "Unknown test id: " + testId);
+            return;
+        }
+        InputStream in = exchange.getRequestBody();
+        if ("gzip".equalsIgnoreCase(exchange.getRequestHeaders().getFirst("Content-Encoding"))) {
+            in = new GZIPInputStream(in);
+        }
+        Map<String, Long> counts = new HashMap<>();
+        long actions = 0;
+        try (JsonParser parser = JSON.createParser(in)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (token == JsonToken.FIELD_NAME && "action".equals(parser.getCurrentName())) {
+                    parser.nextToken();
+                    counts.merge(parser.getText(), 1L, Long::sum);
+                    actions++;
+                }
+            }
+        } catch (IOException e) {
+            respond(exchange, 400, "Malformed solution: " + e.getMessage());
+            return;
+        }
+        long discards = counts.getOrDefault("discard", 0L);
+        String result = String.format("%s: %d orders, %d actions, place=%d, move=%d, pickup=%d, discard=%d (%.2f%% discarded)",
+                testId, orders, actions, counts.getOrDefault("place", 0L), counts.getOrDefault("move", 0L),
+                counts.getOrDefault("pickup", 0L), discards, orders == 0 ? 0.0 : 100.0 * discards / orders);
+        respond(exchange, 200, result);
+    }
+
+    private static long parseSeed(String seed) {
+        if (seed == null || seed.isEmpty() || "0".equals(seed)) {
+            return new Random().nextLong();
+        }
+        try {
+            return Long.parseLong(seed);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid seed: " + seed);
+        }
+    }
+
+    private static Map<String, String> query(HttpExchange exchange) {
+        Map<String, String> parameters = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return parameters;
+        }
+        for (String pair : query.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                parameters.put(URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return parameters;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String message) throws IOException {
+        byte[] body = message.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
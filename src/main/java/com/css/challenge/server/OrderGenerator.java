@@ -0,0 +1,79 @@
+package com.css.challenge.server;
+
+import com.css.challenge.client.Order;
+import com.css.challenge.client.Temperature;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+/**
+ * OrderGenerator produces a reproducible stream of synthetic orders. The temperature mix is given as relative
+ * weights and freshness is drawn uniformly from [minFreshness, maxFreshness] seconds; the same seed always yields
+ * the same orders.
+ */
+public class OrderGenerator implements Iterator<Order> {
+    private static final String[] HOT = {"Cheese Pizza", "Tomato Soup", "Garlic Noodles", "Beef Burrito", "Ramen"};
+    private static final String[] COLD = {"Caesar Salad", "Ice Cream", "Poke Bowl", "Sushi Roll", "Yogurt Parfait"};
+    private static final String[] ROOM = {"Garlic Bread", "Banana Muffin", "Pretzel", "Trail Mix", "Bagel"};
+
+    private final int count;
+    private final Random random;
+    private final double hotShare;
+    private final double coldShare;
+    private final int minFreshness;
+    private final int maxFreshness;
+    private final String idPrefix;
+    private int generated;
+
+    public OrderGenerator(int count, long seed, double hotWeight, double coldWeight, double roomWeight,
+                          int minFreshness, int maxFreshness) {
+        validate(count, hotWeight, coldWeight, roomWeight, minFreshness, maxFreshness);
+        double total = hotWeight + coldWeight + roomWeight;
+        this.count = count;
+        this.random = new Random(seed);
+        this.hotShare = hotWeight / total;
+        this.coldShare = coldWeight / total;
+        this.minFreshness = minFreshness;
+        this.maxFreshness = maxFreshness;
+        this.idPrefix = Long.toString(seed & 0xfffff, 36) + "-";
+    }
+
+    static void validate(int count, double hotWeight, double coldWeight, double roomWeight,
+                         int minFreshness, int maxFreshness) {
+        if (count < 0 || hotWeight < 0 || coldWeight < 0 || roomWeight < 0 || hotWeight + coldWeight + roomWeight <= 0) {
+            throw new IllegalArgumentException("Order count and temperature weights must be non-negative, with a positive total");
+        }
+        if (minFreshness <= 0 || maxFreshness < minFreshness) {
+            throw new IllegalArgumentException("Freshness range must be positive and ordered: " + minFreshness + ".." + maxFreshness);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return generated < count;
+    }
+
+    @Override
+    public Order next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        String id = idPrefix + Integer.toString(generated++, 36);
+        double pick = random.nextDouble();
+        Temperature temp;
+        String[] names;
+        if (pick < hotShare) {
+            temp = Temperature.HOT;
+            names = HOT;
+        } else if (pick < hotShare + coldShare) {
+            temp = Temperature.COLD;
+            names = COLD;
+        } else {
+            temp = Temperature.ROOM;
+            names = ROOM;
+        }
+        int freshness = minFreshness + random.nextInt(maxFreshness - minFreshness + 1);
+        return new Order(id, names[random.nextInt(names.length)], temp, freshness);
+    }
+}
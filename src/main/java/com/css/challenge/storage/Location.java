@@ -0,0 +1,23 @@
+package com.css.challenge.storage;
+
+import java.util.Locale;
+
+/** Location is where a managed order currently sits; NONE once it has been picked up or discarded. */
+public enum Location {
+    NONE, COOLER, HEATER, SHELF;
+
+    private static final Location[] VALUES = values();
+
+    /** Lower-case name, as used in traces. */
+    public String getName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    static Location of(byte code) {
+        return VALUES[code];
+    }
+
+    byte code() {
+        return (byte) ordinal();
+    }
+}
@@ -0,0 +1,19 @@
+package com.css.challenge.storage;
+
+import java.time.Clock;
+
+/**
+ * OffHeapShelf is a Shelf whose {@link OrderSlab} lives outside the Java heap. Its {@link SlotHeap}s still order slots
+ * by the deadline in the slab, so lookups and removals stay O(log n); only the heap arrays themselves are on the Java
+ * heap, a few objects whatever the occupancy.
+ */
+public class OffHeapShelf extends Shelf {
+
+    public OffHeapShelf(int capacity) {
+        this(capacity, Clock.systemUTC());
+    }
+
+    public OffHeapShelf(int capacity, Clock clock) {
+        super(capacity, clock, true);
+    }
+}
@@ -0,0 +1,18 @@
+package com.css.challenge.storage;
+
+import java.time.Clock;
+
+/**
+ * OffHeapStorage is a Storage whose {@link OrderSlab} lives outside the Java heap, so the records indexing its orders
+ * are never scanned by the garbage collector. The storage contract is otherwise the same.
+ */
+public class OffHeapStorage extends Storage {
+
+    public OffHeapStorage(int capacity) {
+        this(capacity, Clock.systemUTC());
+    }
+
+    public OffHeapStorage(int capacity, Clock clock) {
+        super(capacity, clock, true);
+    }
+}
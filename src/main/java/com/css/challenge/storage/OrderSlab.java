@@ -0,0 +1,184 @@
+package com.css.challenge.storage;
+
+import com.css.challenge.client.Temperature;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.function.IntConsumer;
+
+/**
+ * OrderSlab is a storage's index over the orders it holds: a fixed-size record per order in a ByteBuffer, with the
+ * order's {@link OrderTable} handle, the deadline and temperature the order was stored with and its position in a
+ * shelf heap. Free record slots are kept on a stack and ids are indexed by an open-addressing hash table, both in int
+ * buffers as well, so a storage consists of a handful of objects however many orders it holds. The buffers are on
+ * the Java heap as plain arrays, or with {@code direct} outside it, where the garbage collector does not even scan
+ * them.
+ *
+ * <p>Ids are compared through the table, so records are the same size whatever the length of the id. The slab is not
+ * thread-safe; storages only use it under their lock.
+ */
+final class OrderSlab {
+    private static final int HANDLE = 0;
+    private static final int HASH = 4;
+    private static final int POSITION = 8;
+    private static final int TEMPERATURE = 12;
+    private static final int DEADLINE = 16;
+    static final int RECORD_SIZE = 24;
+
+    private static final Temperature[] TEMPERATURES = Temperature.values();
+
+    private final boolean direct;
+    private ByteBuffer records;
+    private IntBuffer freeSlots;
+    private int freeCount;
+    private IntBuffer index; // slot + 1 per bucket, 0 when empty
+    private int mask;
+    private int shift;
+    private int size;
+
+    OrderSlab(int capacity, boolean direct) {
+        this.direct = direct;
+        allocate(Math.max(1, capacity));
+        pushFree(0, capacity());
+    }
+
+    int size() {
+        return size;
+    }
+
+    int capacity() {
+        return records.capacity() / RECORD_SIZE;
+    }
+
+    /** Records the handle in a free slot, growing the slab if it is full, and returns the slot. */
+    int insert(int handle, String id, Temperature temperature, long deadline) {
+        if (freeCount == 0) {
+            grow();
+        }
+        int slot = freeSlots.get(--freeCount);
+        int base = slot * RECORD_SIZE;
+        records.putInt(base + HANDLE, handle);
+        records.putInt(base + HASH, id.hashCode());
+        records.putInt(base + POSITION, -1);
+        records.put(base + TEMPERATURE, (byte) temperature.ordinal());
+        records.putLong(base + DEADLINE, deadline);
+        link(slot);
+        size++;
+        return slot;
+    }
+
+    /** Returns the slot holding the given id, or -1. Ids are looked up in the table the handles belong to. */
+    int find(String id, OrderTable table) {
+        int hash = id.hashCode();
+        for (int bucket = home(hash); ; bucket = (bucket + 1) & mask) {
+            int entry = index.get(bucket);
+            if (entry == 0) {
+                return -1;
+            }
+            int slot = entry - 1;
+            int base = slot * RECORD_SIZE;
+            if (records.getInt(base + HASH) == hash && id.equals(table.id(records.getInt(base + HANDLE)))) {
+                return slot;
+            }
+        }
+    }
+
+    /** Unlinks the id of the given slot and returns the slot to the free stack. */
+    void free(int slot) {
+        int hash = records.getInt(slot * RECORD_SIZE + HASH);
+        int bucket = home(hash);
+        while (index.get(bucket) != slot + 1) {
+            bucket = (bucket + 1) & mask;
+        }
+        // Backward-shift deletion keeps every remaining id reachable from its home bucket without tombstones.
+        int hole = bucket;
+        for (int next = (hole + 1) & mask; index.get(next) != 0; next = (next + 1) & mask) {
+            int nextHome = home(records.getInt((index.get(next) - 1) * RECORD_SIZE + HASH));
+            if (((next - nextHome) & mask) >= ((next - hole) & mask)) {
+                index.put(hole, index.get(next));
+                hole = next;
+            }
+        }
+        index.put(hole, 0);
+        freeSlots.put(freeCount++, slot);
+        size--;
+    }
+
+    /** Hands every occupied slot to the action, in no particular order. */
+    void forEach(IntConsumer action) {
+        for (int bucket = 0; bucket <= mask; bucket++) {
+            int slot = index.get(bucket);
+            if (slot != 0) {
+                action.accept(slot - 1);
+            }
+        }
+    }
+
+    int handle(int slot) {
+        return records.getInt(slot * RECORD_SIZE + HANDLE);
+    }
+
+    long deadline(int slot) {
+        return records.getLong(slot * RECORD_SIZE + DEADLINE);
+    }
+
+    Temperature temperature(int slot) {
+        return TEMPERATURES[records.get(slot * RECORD_SIZE + TEMPERATURE)];
+    }
+
+    /** Position of the slot in the shelf heap that holds it, kept here so heaps need no per-order objects. */
+    int position(int slot) {
+        return records.getInt(slot * RECORD_SIZE + POSITION);
+    }
+
+    void position(int slot, int position) {
+        records.putInt(slot * RECORD_SIZE + POSITION, position);
+    }
+
+    /** Fibonacci hashing: the high bits of the product are well mixed even for similar ids. */
+    private int home(int hash) {
+        return (hash * 0x9E3779B9) >>> shift;
+    }
+
+    private void link(int slot) {
+        int bucket = home(records.getInt(slot * RECORD_SIZE + HASH));
+        while (index.get(bucket) != 0) {
+            bucket = (bucket + 1) & mask;
+        }
+        index.put(bucket, slot + 1);
+    }
+
+    private void allocate(int capacity) {
+        records = buffer(capacity * RECORD_SIZE);
+        freeSlots = buffer(capacity * Integer.BYTES).asIntBuffer();
+        int buckets = Integer.highestOneBit(capacity) << 2; // at most half full
+        index = buffer(buckets * Integer.BYTES).asIntBuffer();
+        mask = buckets - 1;
+        shift = Integer.numberOfLeadingZeros(buckets) + 1;
+    }
+
+    private ByteBuffer buffer(int bytes) {
+        return (direct ? ByteBuffer.allocateDirect(bytes) : ByteBuffer.allocate(bytes)).order(ByteOrder.nativeOrder());
+    }
+
+    /** Pushes slots [from, to) so that the lowest slot is handed out first. */
+    private void pushFree(int from, int to) {
+        for (int slot = to - 1; slot >= from; slot--) {
+            freeSlots.put(freeCount++, slot);
+        }
+    }
+
+    /** Doubles the slab, e.g. after the storage capacity was raised. Slots keep their numbers. */
+    private void grow() {
+        ByteBuffer oldRecords = records;
+        int oldCapacity = capacity();
+        allocate(oldCapacity * 2);
+        pushFree(oldCapacity, oldCapacity * 2);
+        oldRecords.clear();
+        records.put(oldRecords);
+        for (int slot = 0; slot < oldCapacity; slot++) {
+            link(slot);
+        }
+    }
+}
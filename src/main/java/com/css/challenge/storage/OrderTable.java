@@ -0,0 +1,232 @@
+package com.css.challenge.storage;
+
+import com.css.challenge.client.Order;
+import com.css.challenge.client.Temperature;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * OrderTable is where the state of every managed order lives. Orders are interned to dense int handles as they are
+ * parsed, and the id, name, temperature, freshness, placement timestamp, deadline and location of each are kept in
+ * parallel arrays indexed by that handle. Storages index handles rather than orders, so once an order has been
+ * interned the system keeps no per-order object of its own: a row is a few primitives plus references to the id and
+ * name strings it was parsed with. Orders handed out by lookups are built from the row per call.
+ *
+ * <p>Columns grow in fixed-size chunks, so registering never copies existing state, and handles of orders that have
+ * been picked up or discarded are reused. Handles are allocated without locks: new handles come from an atomic
+ * counter and released ones from a lock-free stack linked through a column of the table. Storages write an order's
+ * row while holding their own lock. Readers without that lock, such as pickup routing, may see a slightly stale row
+ * and must confirm it with the storage itself.
+ */
+public class OrderTable {
+    private static final int CHUNK_SHIFT = 12;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final Temperature[] TEMPERATURES = Temperature.values();
+
+    private static final class Chunk {
+        final String[] ids = new String[CHUNK_SIZE]; // null while the handle is free
+        final String[] names = new String[CHUNK_SIZE];
+        final byte[] temperature = new byte[CHUNK_SIZE];
+        final int[] freshness = new int[CHUNK_SIZE];
+        final long[] timestamp = new long[CHUNK_SIZE];
+        final long[] deadline = new long[CHUNK_SIZE];
+        final byte[] location = new byte[CHUNK_SIZE];
+        final int[] nextFree = new int[CHUNK_SIZE]; // handle below this one on the free stack, or -1
+    }
+
+    private final AtomicReference<Chunk[]> chunks = new AtomicReference<>(new Chunk[0]);
+    private final AtomicInteger next = new AtomicInteger(); // first never-used handle
+    // Top of the free stack: a version counter in the high half, against ABA, and the handle + 1 in the low half.
+    private final AtomicLong freeTop = new AtomicLong();
+    private final AtomicInteger live = new AtomicInteger();
+
+    /** Registers each order as the parser yields it, so orders carry their handle from the moment they are read. */
+    public Iterator<Order> intern(Iterator<Order> parsed) {
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return parsed.hasNext();
+            }
+
+            @Override
+            public Order next() {
+                Order order = parsed.next();
+                register(order);
+                return order;
+            }
+        };
+    }
+
+    /** Assigns the order a handle and copies it into the handle's row, unless it is already registered here. */
+    public int register(Order order) {
+        int handle = handle(order);
+        if (handle >= 0) {
+            return handle;
+        }
+        handle = popFree();
+        if (handle < 0) {
+            handle = next.getAndIncrement();
+            ensureChunk(handle >>> CHUNK_SHIFT);
+        }
+        live.incrementAndGet();
+        Chunk chunk = chunk(handle);
+        int slot = handle & CHUNK_MASK;
+        chunk.ids[slot] = order.getId();
+        chunk.names[slot] = order.getName();
+        chunk.temperature[slot] = (byte) order.getTemperature().ordinal();
+        chunk.freshness[slot] = order.getFreshness();
+        chunk.timestamp[slot] = order.getTimestamp();
+        chunk.deadline[slot] = order.getDeadline();
+        chunk.location[slot] = Location.NONE.code();
+        order.setHandle(handle);
+        return handle;
+    }
+
+    /**
+     * Returns the order's handle if its row in this table still holds the order, or -1. An order keeps its handle
+     * after leaving the system, when the handle may already have been given to another order.
+     */
+    public int handle(Order order) {
+        int handle = order.getHandle();
+        if (handle < 0 || handle >>> CHUNK_SHIFT >= chunks.get().length) {
+            return -1;
+        }
+        return order.getId().equals(chunk(handle).ids[handle & CHUNK_MASK]) ? handle : -1;
+    }
+
+    /**
+     * Releases the handle of an order that was registered but never stored, e.g. one turned away at ingress. Orders
+     * that sit in a storage keep their handle until they leave it.
+     */
+    public void release(Order order) {
+        int handle = handle(order);
+        if (handle >= 0 && location(handle) == Location.NONE) {
+            free(handle);
+        }
+    }
+
+    /** Copies the order's freshness, placement timestamp and deadline into its row. */
+    void update(int handle, Order order) {
+        Chunk chunk = chunk(handle);
+        int slot = handle & CHUNK_MASK;
+        chunk.freshness[slot] = order.getFreshness();
+        chunk.timestamp[slot] = order.getTimestamp();
+        chunk.deadline[slot] = order.getDeadline();
+    }
+
+    /** Records that the order now sits in the given location. */
+    void place(int handle, Location location) {
+        chunk(handle).location[handle & CHUNK_MASK] = location.code();
+    }
+
+    /**
+     * Records that the order has left the given location. An order that has already been placed somewhere else, as
+     * during a move, is left alone; otherwise it has left the system and its handle is released for reuse.
+     */
+    void leave(int handle, Location location) {
+        if (chunk(handle).location[handle & CHUNK_MASK] == location.code()) {
+            free(handle);
+        }
+    }
+
+    public Location location(int handle) {
+        return handle < 0 ? Location.NONE : Location.of(chunk(handle).location[handle & CHUNK_MASK]);
+    }
+
+    public String id(int handle) {
+        return chunk(handle).ids[handle & CHUNK_MASK];
+    }
+
+    public Temperature temperature(int handle) {
+        return TEMPERATURES[chunk(handle).temperature[handle & CHUNK_MASK]];
+    }
+
+    public int freshness(int handle) {
+        return chunk(handle).freshness[handle & CHUNK_MASK];
+    }
+
+    public long timestamp(int handle) {
+        return chunk(handle).timestamp[handle & CHUNK_MASK];
+    }
+
+    public long deadline(int handle) {
+        return chunk(handle).deadline[handle & CHUNK_MASK];
+    }
+
+    /** Builds an Order from the handle's row, carrying the handle. Allocates per call. */
+    public Order order(int handle) {
+        Chunk chunk = chunk(handle);
+        int slot = handle & CHUNK_MASK;
+        Order order = new Order(chunk.ids[slot], chunk.names[slot], TEMPERATURES[chunk.temperature[slot]],
+                chunk.freshness[slot]);
+        order.setTimestamp(chunk.timestamp[slot]);
+        order.setDeadline(chunk.deadline[slot]);
+        order.setHandle(handle);
+        return order;
+    }
+
+    /** Number of orders holding a handle. */
+    public int size() {
+        return live.get();
+    }
+
+    private void free(int handle) {
+        Chunk chunk = chunk(handle);
+        int slot = handle & CHUNK_MASK;
+        chunk.location[slot] = Location.NONE.code();
+        chunk.ids[slot] = null;
+        chunk.names[slot] = null;
+        live.decrementAndGet();
+        pushFree(handle);
+    }
+
+    private Chunk chunk(int handle) {
+        return chunks.get()[handle >>> CHUNK_SHIFT];
+    }
+
+    /** Appends chunks until the given one exists. Only runs once per CHUNK_SIZE new handles. */
+    private void ensureChunk(int index) {
+        for (Chunk[] current = chunks.get(); current.length <= index; current = chunks.get()) {
+            Chunk[] grown = Arrays.copyOf(current, current.length + 1);
+            grown[current.length] = new Chunk();
+            chunks.compareAndSet(current, grown);
+        }
+    }
+
+    private void pushFree(int handle) {
+        Chunk chunk = chunk(handle);
+        int slot = handle & CHUNK_MASK;
+        while (true) {
+            long top = freeTop.get();
+            chunk.nextFree[slot] = (int) top - 1;
+            if (freeTop.compareAndSet(top, version(top) | (handle + 1))) {
+                return;
+            }
+        }
+    }
+
+    /** Pops a released handle, or returns -1 if there is none. */
+    private int popFree() {
+        while (true) {
+            long top = freeTop.get();
+            int handle = (int) top - 1;
+            if (handle < 0) {
+                return -1;
+            }
+            int below = chunk(handle).nextFree[handle & CHUNK_MASK];
+            if (freeTop.compareAndSet(top, version(top) | (below + 1))) {
+                return handle;
+            }
+        }
+    }
+
+    /** The version half of the stack top, advanced by one, so a top that was popped and pushed back differs. */
+    private static long version(long top) {
+        return ((top >>> 32) + 1) << 32;
+    }
+}
@@ -0,0 +1,13 @@
+package com.css.challenge.storage;
+
+/** PickupResult is the outcome of asking a storage for an order. */
+public enum PickupResult {
+    /** The order was ready and has been removed. */
+    PICKED_UP,
+    /** The order had expired and has been removed, to be discarded. */
+    EXPIRED,
+    /** The order is here but not ready to be picked up; it stays. */
+    NOT_READY,
+    /** The order is not in this storage. */
+    NOT_FOUND
+}
@@ -0,0 +1,52 @@
+package com.css.challenge.storage;
+
+import com.css.challenge.config.Config;
+
+import java.time.Duration;
+
+/**
+ * PickupWindow is the span after placement in which an order can be picked up: from min up to and including max. An
+ * order still stored once max has passed has expired. The window comes from the --min and --max options, so storages
+ * accept pickups exactly when the pickup schedule sends them.
+ */
+public final class PickupWindow {
+    public static final PickupWindow DEFAULT = new PickupWindow(Duration.ofSeconds(4), Duration.ofSeconds(8));
+
+    private final Duration min;
+    private final Duration max;
+
+    public PickupWindow(Duration min, Duration max) {
+        if (min.isNegative() || max.compareTo(min) < 0) {
+            throw new IllegalArgumentException("Pickup window must satisfy 0 <= min <= max: " + min + ", " + max);
+        }
+        this.min = min;
+        this.max = max;
+    }
+
+    public Duration getMin() {
+        return min;
+    }
+
+    public Duration getMax() {
+        return max;
+    }
+
+    /** Start of the window after placement, in order timestamp units as scaled by epoch.to.seconds. */
+    public long earliest() {
+        return units(min);
+    }
+
+    /** End of the window after placement, in order timestamp units as scaled by epoch.to.seconds. */
+    public long latest() {
+        return units(max);
+    }
+
+    private static long units(Duration duration) {
+        return duration.toNanos() * Config.get().getMicrosPerSecond() / 1_000_000_000L;
+    }
+
+    @Override
+    public String toString() {
+        return "[" + min + ", " + max + "]";
+    }
+}
@@ -1,102 +1,104 @@
 package com.css.challenge.storage;
 
-import com.css.challenge.Main;
-import com.css.challenge.client.Action;
 import com.css.challenge.client.Order;
+import com.css.challenge.client.Temperature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.time.Instant;
-import java.time.temporal.ChronoUnit;
-import java.util.List;
-import java.util.PriorityQueue;
+import java.time.Clock;
 
+/**
+ * Shelf keeps an id index over its orders plus one freshness heap per temperature, so lookups and removals by id
+ * are O(log n) and the least fresh hot or cold order is always at the top of its heap. Heaps are ordered by the
+ * deadline fixed when an order is placed or moved, so comparisons never read the clock. The index and heaps are only
+ * touched while holding the shelf lock. Both are built on the storage's {@link OrderSlab}, so the heaps hold slab
+ * slots rather than orders.
+ */
 public class Shelf extends Storage {
     private static final Logger LOGGER = LoggerFactory.getLogger(Shelf.class);
 
-    private PriorityQueue<Order> freshnessQueue;
-
+    private final SlotHeap[] heaps;
 
     public Shelf(int capacity) {
-        super(capacity);
-        freshnessQueue = new PriorityQueue<>((o1, o2) -> {
-            long now = ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now());
-            long freshness1 = o1.getFreshness() - (now - o1.getTimestamp()) / Long.parseLong(Main.get("epoch.to.seconds"));
-            long freshness2 = o2.getFreshness() - (now - o2.getTimestamp()) / Long.parseLong(Main.get("epoch.to.seconds"));
-            return Long.compare(freshness1, freshness2);
-
-        });
-
-
+        this(capacity, Clock.systemUTC());
     }
 
-    @Override
-    public boolean addOrder(Order order) {
-        if (super.addOrder(order)) {
-            freshnessQueue.add(order);
-            return true;
-        }
-        return false;
+    public Shelf(int capacity, Clock clock) {
+        this(capacity, clock, false);
     }
 
-    @Override
-    public boolean moveOrder(Order order) {
-        if(super.moveOrder(order)){
-            freshnessQueue.add(order);
-            return true;
-        }
-        return false;
-    }
-
-    @Override
-    public boolean removeOrder(String orderId) {
-        boolean removed = super.removeOrder(orderId);
-        if (removed) {
-            Order orderToRemoveFromShelf = freshnessQueue.stream().filter(order -> order.getId().equals(orderId)).findFirst().orElse(null);
-            if(orderToRemoveFromShelf != null){
-                freshnessQueue.remove(orderToRemoveFromShelf);
-            }
-        }
-        return removed;
+    /** Creates a shelf whose slab is allocated outside the Java heap if offHeap is set. */
+    protected Shelf(int capacity, Clock clock, boolean offHeap) {
+        super(capacity, clock, offHeap);
+        heaps = new SlotHeap[]{new SlotHeap(slab()), new SlotHeap(slab()), new SlotHeap(slab())};
     }
 
+    /** Returns the least fresh order across all temperatures without removing it. */
     public Order getOrderToDiscard() {
-        return freshnessQueue.poll();
+        getLock().lock();
+        try {
+            return order(leastFresh(null));
+        } finally {
+            getLock().unlock();
+        }
     }
 
     public Order getLeastFreshColdOrder() {
-        return freshnessQueue.stream()
-                .filter(order -> "cold".equalsIgnoreCase(order.getTemp()))
-                .findFirst()
-                .orElse(null);
+        getLock().lock();
+        try {
+            return order(leastFresh(Temperature.COLD));
+        } finally {
+            getLock().unlock();
+        }
     }
 
     public Order getLeastFreshHotOrder() {
-        return freshnessQueue.stream()
-                .filter(order -> "hot".equalsIgnoreCase(order.getTemp()))
-                .findFirst()
-                .orElse(null);
+        getLock().lock();
+        try {
+            return order(leastFresh(Temperature.HOT));
+        } finally {
+            getLock().unlock();
+        }
     }
 
-    public boolean pickupOrder(String orderId, List<Action> actions){
-        Order orderToPick = freshnessQueue.stream().filter(order -> order.getId().equals(orderId)).findFirst().orElse(null);
-        if(orderToPick == null){
-            return false;
+    /** Returns the least fresh order of the given temperature without removing it. */
+    public Order getLeastFreshOrder(Temperature temperature) {
+        getLock().lock();
+        try {
+            return order(leastFresh(temperature));
+        } finally {
+            getLock().unlock();
         }
+    }
 
-        long now = ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now());
-        long orderTimestamp = orderToPick.getTimestamp();
-        long timeLapsAfterPlacingOrder = (now - orderTimestamp)/Long.parseLong(Main.get("epoch.to.seconds"));
-        if(timeLapsAfterPlacingOrder > 8.0){
-            if(removeOrder(orderId)){
-                long orderDiscardTimestamp = ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now());
-                actions.add(new Action(orderDiscardTimestamp, orderId, Action.DISCARD));
-            }
-            return false;
+    /**
+     * Returns the slab slot of the least fresh order of the given temperature, or of any temperature if null, or -1 if
+     * there is none. Callers must hold the shelf lock.
+     */
+    protected int leastFresh(Temperature temperature) {
+        if (temperature != null) {
+            return heaps[temperature.ordinal()].peek();
         }
-        if(timeLapsAfterPlacingOrder >= 4.0 && timeLapsAfterPlacingOrder <= 8.0){
-            return removeOrder(orderId);
+        int least = -1;
+        for (SlotHeap heap : heaps) {
+            int top = heap.peek();
+            if (top >= 0 && (least < 0 || slab().deadline(top) < slab().deadline(least))) {
+                least = top;
+            }
         }
-        return false;
+        return least;
+    }
+
+    @Override
+    protected int store(int handle) {
+        int slot = super.store(handle);
+        heaps[slab().temperature(slot).ordinal()].add(slot);
+        return slot;
+    }
+
+    @Override
+    protected int evict(int slot) {
+        heaps[slab().temperature(slot).ordinal()].remove(slot);
+        return super.evict(slot);
     }
 }
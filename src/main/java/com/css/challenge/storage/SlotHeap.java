@@ -0,0 +1,79 @@
+package com.css.challenge.storage;
+
+import java.util.Arrays;
+
+/**
+ * SlotHeap is a shelf's freshness heap: a binary min-heap of {@link OrderSlab} slots keyed by the deadline stored
+ * in the slab. Each slot's heap position is kept in its slab record, so the heap itself is a single int array.
+ */
+class SlotHeap {
+    private final OrderSlab slab;
+    private int[] slots = new int[16];
+    private int size;
+
+    SlotHeap(OrderSlab slab) {
+        this.slab = slab;
+    }
+
+    /** Slot with the earliest deadline, or -1 if the heap is empty. */
+    int peek() {
+        return size == 0 ? -1 : slots[0];
+    }
+
+    void add(int slot) {
+        if (size == slots.length) {
+            slots = Arrays.copyOf(slots, size * 2);
+        }
+        place(slot, size++);
+        siftUp(size - 1);
+    }
+
+    void remove(int slot) {
+        int position = slab.position(slot);
+        int last = slots[--size];
+        slab.position(slot, -1);
+        if (last != slot) {
+            place(last, position);
+            siftDown(position);
+            siftUp(slab.position(last));
+        }
+    }
+
+    private void siftUp(int position) {
+        int slot = slots[position];
+        long deadline = slab.deadline(slot);
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (deadline >= slab.deadline(slots[parent])) {
+                break;
+            }
+            place(slots[parent], position);
+            position = parent;
+        }
+        place(slot, position);
+    }
+
+    private void siftDown(int position) {
+        int slot = slots[position];
+        long deadline = slab.deadline(slot);
+        int half = size >>> 1;
+        while (position < half) {
+            int child = 2 * position + 1;
+            int right = child + 1;
+            if (right < size && slab.deadline(slots[right]) < slab.deadline(slots[child])) {
+                child = right;
+            }
+            if (deadline <= slab.deadline(slots[child])) {
+                break;
+            }
+            place(slots[child], position);
+            position = child;
+        }
+        place(slot, position);
+    }
+
+    private void place(int slot, int position) {
+        slots[position] = slot;
+        slab.position(slot, position);
+    }
+}
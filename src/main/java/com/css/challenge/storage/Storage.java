@@ -1,72 +1,333 @@
 package com.css.challenge.storage;
 
-import com.css.challenge.Main;
 import com.css.challenge.client.Action;
+import com.css.challenge.client.ActionSink;
 import com.css.challenge.client.Order;
+import com.css.challenge.config.Config;
+import com.css.challenge.trace.TraceEvent;
+import com.css.challenge.trace.Tracer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Clock;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Storage holds up to capacity orders, indexed by id. Every storage is guarded by its own lock, so traffic on
+ * different storages never contends. Operations that span several storages take their locks through
+ * {@link #getLock()} in the fixed order cooler, heater, shelf.
+ *
+ * <p>The state of a stored order lives in an {@link OrderTable} row; the storage itself only keeps the order's
+ * handle, in an {@link OrderSlab} record, so it holds no object per order.
+ */
 public class Storage {
     private static final Logger LOGGER = LoggerFactory.getLogger(Storage.class);
 
-    private int capacity;
-    private ConcurrentLinkedQueue<Order> orders;
+    private volatile int capacity;
+    private final OrderSlab slab;
+    private final ReentrantLock lock;
+    private final Clock clock;
+    private volatile int size;
+    private final LongAdder expired = new LongAdder();
+    private OrderTable table = new OrderTable();
+    private Location location = Location.NONE;
+    private volatile PickupWindow pickupWindow = PickupWindow.DEFAULT;
 
     public Storage(int capacity) {
+        this(capacity, Clock.systemUTC());
+    }
+
+    public Storage(int capacity, Clock clock) {
+        this(capacity, clock, false);
+    }
+
+    /** Creates a storage whose slab is allocated outside the Java heap if offHeap is set. */
+    protected Storage(int capacity, Clock clock, boolean offHeap) {
         this.capacity = capacity;
-        this.orders = new ConcurrentLinkedQueue<>();
+        this.slab = new OrderSlab(capacity, offHeap);
+        this.lock = new ReentrantLock();
+        this.clock = clock;
     }
 
     public boolean addOrder(Order order) {
-        if (orders.size() < capacity) {
-            orders.add(order);
+        lock.lock();
+        try {
+            if (!reserveSlot()) {
+                return false;
+            }
+            assignDeadline(order);
+            keep(order);
             return true;
+        } finally {
+            lock.unlock();
         }
-        return false;
     }
 
     public boolean moveOrder(Order order){
-        if(orders.size() < capacity){
+        lock.lock();
+        try {
+            if (!reserveSlot()) {
+                return false;
+            }
             int orderFreshness = order.getFreshness();
             order.setFreshness(orderFreshness/2);
-            orders.add(order);
+            assignDeadline(order);
+            keep(order);
             return true;
+        } finally {
+            lock.unlock();
         }
-        return false;
     }
 
     public boolean removeOrder(String orderId) {
-        return orders.removeIf(order -> order.getId().equals(orderId));
+        lock.lock();
+        try {
+            int slot = find(orderId);
+            if (slot < 0) {
+                return false;
+            }
+            left(evict(slot));
+            releaseSlot();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Refills the storage with orders from a snapshot under a single lock acquisition. Orders beyond the capacity are
+     * skipped with a warning. Returns the number of orders restored.
+     */
+    public int restore(List<Order> restored) {
+        lock.lock();
+        try {
+            int count = 0;
+            for (Order order : restored) {
+                if (!reserveSlot()) {
+                    LOGGER.warn("Could not restore order " + order.getId() + " to a full " + location);
+                    continue;
+                }
+                assignDeadline(order);
+                keep(order);
+                count++;
+            }
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Appends a copy of every stored order to the list, so the copies stay as they were once the lock is released.
+     * Callers must hold the storage lock.
+     */
+    public void copyOrders(List<Order> into) {
+        slab.forEach(slot -> into.add(order(slot)));
     }
 
     public boolean isFull() {
-        return orders.size() >= capacity;
+        return size >= capacity;
     }
 
-    public boolean pickupOrder(String orderId, List<Action> actions){
-        Order orderToPick = orders.stream().filter(order -> order.getId().equals(orderId)).findFirst().orElse(null);
-        if(orderToPick == null){
-            return false;
+    public int size() {
+        return size;
+    }
+
+    /** Number of orders this storage has discarded because they had expired by the time they were picked up. */
+    public long getExpiredCount() {
+        return expired.sum();
+    }
+
+    /** Counts and traces an order discarded at pickup because it had expired. */
+    protected void expired(String orderId, long secondsSincePlacement) {
+        expired.increment();
+        Tracer.trace(TraceEvent.EXPIRED, orderId, secondsSincePlacement);
+    }
+
+    public ReentrantLock getLock() {
+        return lock;
+    }
+
+    /** Returns the slab slot of the stored order with the given id, or -1. Callers must hold the storage lock. */
+    protected int find(String orderId) {
+        return slab.find(orderId, table);
+    }
+
+    /** Builds the order in the slab slot from its table row, or returns null for -1. Callers must hold the lock. */
+    protected Order order(int slot) {
+        return slot < 0 ? null : table.order(slab.handle(slot));
+    }
+
+    /** Placement timestamp of the order in the given slab slot. Callers must hold the storage lock. */
+    protected long timestamp(int slot) {
+        return table.timestamp(slab.handle(slot));
+    }
+
+    /**
+     * Stores an order whose slot has been reserved, handing the slot back if it cannot be stored. The order is
+     * registered in the table if it was not yet, and its row takes the freshness and deadline it was stored with.
+     */
+    private void keep(Order order) {
+        int handle;
+        try {
+            handle = table.register(order);
+            table.update(handle, order);
+            store(handle);
+        } catch (RuntimeException e) {
+            releaseSlot();
+            throw e;
         }
-        long now = ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now());
-        long orderTimestamp = orderToPick.getTimestamp();
-        float timeLapsAfterPlacingOrder = (now - orderTimestamp)/Long.parseLong(Main.get("epoch.to.seconds"));
-        if(timeLapsAfterPlacingOrder > 8){
-            if(removeOrder(orderId)){
-                long orderDiscardTimestamp = ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now());
-                actions.add(new Action(orderDiscardTimestamp, orderId, Action.DISCARD));
+        table.place(handle, location);
+    }
+
+    /**
+     * Keeps the order whose row is up to date, replacing a stored order with the same id, and returns its slab slot.
+     * Callers must hold the storage lock and have reserved a slot.
+     */
+    protected int store(int handle) {
+        String orderId = table.id(handle);
+        int previous = find(orderId);
+        if (previous >= 0) {
+            int replaced = evict(previous);
+            releaseSlot();
+            if (replaced != handle) {
+                left(replaced);
             }
+        }
+        return slab.insert(handle, orderId, table.temperature(handle), table.deadline(handle));
+    }
+
+    /** Drops the order in the given slab slot and returns its handle. Callers must hold the storage lock. */
+    protected int evict(int slot) {
+        int handle = slab.handle(slot);
+        slab.free(slot);
+        return handle;
+    }
+
+    /** The records of the orders held here. */
+    OrderSlab slab() {
+        return slab;
+    }
+
+    /**
+     * Makes this storage keep its orders in the given table and record them as being at the given location. Must be
+     * called before any order is stored; until then a storage has a table of its own.
+     */
+    public void attach(OrderTable table, Location location) {
+        this.table = table;
+        this.location = location;
+    }
+
+    public Location getLocation() {
+        return location;
+    }
+
+    public PickupWindow getPickupWindow() {
+        return pickupWindow;
+    }
+
+    /** Changes the span after placement in which orders here can be picked up. */
+    public void setPickupWindow(PickupWindow pickupWindow) {
+        this.pickupWindow = pickupWindow;
+    }
+
+    /** Records that the order with the handle has just left this storage. Callers must hold the storage lock. */
+    private void left(int handle) {
+        table.leave(handle, location);
+    }
+
+    /** Takes one slot if the storage has room. Callers must hold the storage lock. */
+    protected boolean reserveSlot() {
+        if (size >= capacity) {
             return false;
         }
-        if(timeLapsAfterPlacingOrder >= 4 && timeLapsAfterPlacingOrder < 8){
-            return removeOrder(orderId);
+        size++;
+        return true;
+    }
+
+    /** Gives back a slot taken by {@link #reserveSlot()}. Callers must hold the storage lock. */
+    protected void releaseSlot() {
+        size--;
+    }
+
+    /**
+     * Fixes the absolute expiry of an order as it enters this storage, from its placement timestamp and its current
+     * freshness. Orders moved to the shelf have already had their freshness halved, so the deadline reflects that decay.
+     */
+    protected static void assignDeadline(Order order) {
+        order.setDeadline(order.getTimestamp() + order.getFreshness() * Config.get().getMicrosPerSecond());
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Changes the number of slots. Shrinking below the current occupancy evicts nothing; the storage simply reports
+     * full until enough orders have left.
+     */
+    public void setCapacity(int capacity) {
+        lock.lock();
+        try {
+            this.capacity = capacity;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Current time of this storage's clock as a unix timestamp in microseconds. */
+    protected long now() {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, clock.instant());
+    }
+
+    public boolean pickupOrder(String orderId, List<Action> actions){
+        return pickupOrder(orderId, ActionSink.of(actions));
+    }
+
+    /** Picks up the order, appending a discard action if it had expired. Returns whether it was picked up. */
+    public boolean pickupOrder(String orderId, ActionSink actions){
+        PickupResult result = pickup(orderId);
+        if (result == PickupResult.EXPIRED) {
+            actions.append(now(), orderId, Action.DISCARD_CODE);
+        }
+        return result == PickupResult.PICKED_UP;
+    }
+
+    /** Removes the order if it is ready or has expired, leaving it to the caller to record the action. */
+    public PickupResult pickup(String orderId){
+        return pickup(orderId, now());
+    }
+
+    /**
+     * Like {@link #pickup(String)} at the given time, so a batch of pickups can share one clock read. An order is
+     * ready from the start of the pickup window up to and including its end, and has expired after it.
+     */
+    public PickupResult pickup(String orderId, long now){
+        lock.lock();
+        try {
+            int slot = find(orderId);
+            if(slot < 0){
+                return PickupResult.NOT_FOUND;
+            }
+            long sincePlacement = now - timestamp(slot);
+            PickupWindow window = pickupWindow;
+            if(sincePlacement > window.latest()){
+                removeOrder(orderId);
+                expired(orderId, sincePlacement / Config.get().getMicrosPerSecond());
+                return PickupResult.EXPIRED;
+            }
+            if(sincePlacement >= window.earliest()){
+                removeOrder(orderId);
+                return PickupResult.PICKED_UP;
+            }
+            return PickupResult.NOT_READY;
+        } finally {
+            lock.unlock();
         }
-        return false;
     }
 
 }
@@ -0,0 +1,58 @@
+package com.css.challenge.trace;
+
+/**
+ * TraceEvent lists the fixed-shape events the order management hot path can record. Each event carries an order id,
+ * an optional detail string and an optional number, substituted for {id}, {detail} and {value} in its message.
+ */
+public enum TraceEvent {
+    RECEIVED("com.css.challenge.Main", "Received order {id} ({detail})"),
+    PLACING(TraceEvent.OMS, "Placing order : {id} & temp : {detail}"),
+    PICKING_UP(TraceEvent.OMS, "Picking up : {id}"),
+    PLACED(TraceEvent.OMS, "Order {id} placed in {detail}"),
+    SHELVED(TraceEvent.OMS, "Order {id} placed on the shelf with freshness halved to {value}"),
+    SHELF_FULL(TraceEvent.OMS, "Shelf is full, checking space in {detail} for order {id}"),
+    NO_ROOM(TraceEvent.OMS, "{detail} is full too, discarding the least fresh shelf order for order {id}"),
+    REBALANCING(TraceEvent.OMS, "{detail} has space, looking for a shelf order to move there for order {id}"),
+    NOTHING_TO_MOVE(TraceEvent.OMS, "No {detail} order on the shelf to move for order {id}, discarding instead"),
+    MOVED(TraceEvent.OMS, "Moved order {id} from the shelf to {detail}"),
+    DISCARDED(TraceEvent.OMS, "Discarded least fresh order {id} from the shelf"),
+    SPOILED(TraceEvent.OMS, "Discarded order {id} from the {detail} as it expired"),
+    EXPIRED("com.css.challenge.storage.Storage", "Discarded order {id} at pickup, {value} s after placement");
+
+    private static final String OMS = "com.css.challenge.management.OrderManagementSystem";
+
+    private final String logger;
+    private final String message;
+
+    TraceEvent(String logger, String message) {
+        this.logger = logger;
+        this.message = message;
+    }
+
+    String getLogger() {
+        return logger;
+    }
+
+    /** Appends the message with the event's fields substituted in. */
+    void format(StringBuilder out, String id, String detail, long value) {
+        int from = 0;
+        int open;
+        while ((open = message.indexOf('{', from)) >= 0) {
+            int close = message.indexOf('}', open);
+            out.append(message, from, open);
+            switch (message.substring(open + 1, close)) {
+                case "id":
+                    out.append(id);
+                    break;
+                case "detail":
+                    out.append(detail);
+                    break;
+                default:
+                    out.append(value);
+                    break;
+            }
+            from = close + 1;
+        }
+        out.append(message, from, message.length());
+    }
+}
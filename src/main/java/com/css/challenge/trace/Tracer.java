@@ -0,0 +1,208 @@
+package com.css.challenge.trace;
+
+import com.css.challenge.config.Config;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Tracer records {@link TraceEvent}s from the order management hot path without formatting them there. Callers copy
+ * an event code, an id, a detail and a number into a preallocated ring buffer; a daemon thread turns them into log
+ * lines later, outside any storage lock. Recording never allocates and never blocks: when the buffer is full the
+ * event is counted as dropped. When tracing is off, every call returns after reading one volatile flag.
+ *
+ * <p>Tracing is enabled by trace.enabled in the configuration, provided the application loggers log at info level.
+ */
+public final class Tracer {
+    private static final Logger LOGGER = LoggerFactory.getLogger(Tracer.class);
+    private static final Logger APPLICATION = LoggerFactory.getLogger("com.css.challenge");
+
+    private static volatile boolean enabled = isWanted(Config.get());
+
+    static {
+        Config.addListener(config -> enabled = isWanted(config));
+    }
+
+    private Tracer() {}
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Turns tracing on or off until the configuration next changes. */
+    public static void setEnabled(boolean on) {
+        enabled = on;
+    }
+
+    public static void trace(TraceEvent event, String id) {
+        if (enabled) {
+            Shared.RING.publish(event, id, null, 0);
+        }
+    }
+
+    public static void trace(TraceEvent event, String id, String detail) {
+        if (enabled) {
+            Shared.RING.publish(event, id, detail, 0);
+        }
+    }
+
+    public static void trace(TraceEvent event, String id, long value) {
+        if (enabled) {
+            Shared.RING.publish(event, id, null, value);
+        }
+    }
+
+    /** Waits up to the timeout for every event recorded so far to be written. */
+    public static void flush(long timeout, TimeUnit unit) {
+        Shared.RING.flush(unit.toNanos(timeout));
+    }
+
+    private static boolean isWanted(Config config) {
+        return config.isTraceEnabled() && APPLICATION.isInfoEnabled();
+    }
+
+    /** Where a ring's writer thread hands the formatted events and its reports of dropped ones. */
+    public interface Output {
+        void write(TraceEvent event, String line);
+
+        /** Called by the writer when it finds the buffer has dropped events since the last report. */
+        void dropped(long count);
+    }
+
+    /** Logs each event to its event's logger and reports drops as warnings. */
+    private static final Output LOG = new Output() {
+        @Override
+        public void write(TraceEvent event, String line) {
+            LoggerFactory.getLogger(event.getLogger()).info(line);
+        }
+
+        @Override
+        public void dropped(long count) {
+            LOGGER.warn("Trace buffer full, dropped " + count + " events");
+        }
+    };
+
+    /** Holds the ring every trace call publishes to, created with its writer thread on first use. */
+    private static final class Shared {
+        static final Ring RING = new Ring(Config.get().getTraceBuffer(), LOG);
+
+        static {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> RING.flush(TimeUnit.SECONDS.toNanos(1))));
+        }
+    }
+
+    /**
+     * Multi-producer, single-consumer ring of parallel arrays with its own writer thread. A producer claims a sequence
+     * with a CAS on claimed, fills the slot and then publishes the sequence number into the slot, which is what the
+     * writer waits for before reading it. Tracer uses one shared ring; others can be created, e.g. to test a ring on
+     * its own.
+     */
+    public static final class Ring {
+        private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+        private final int mask;
+        private final TraceEvent[] events;
+        private final String[] ids;
+        private final String[] details;
+        private final long[] values;
+        private final AtomicLongArray published;
+        private final AtomicLong claimed = new AtomicLong();
+        private final AtomicLong consumed = new AtomicLong();
+        private final LongAdder dropped = new LongAdder();
+        private final Output output;
+
+        /** Creates a ring of at least the requested size, rounded up to a power of two, and starts its writer. */
+        public Ring(long requestedSize, Output output) {
+            this.output = output;
+            int size = Integer.highestOneBit((int) Math.min(requestedSize, 1 << 30));
+            if (size < requestedSize) {
+                size <<= 1;
+            }
+            mask = size - 1;
+            events = new TraceEvent[size];
+            ids = new String[size];
+            details = new String[size];
+            values = new long[size];
+            published = new AtomicLongArray(size);
+            for (int i = 0; i < size; i++) {
+                published.set(i, -1);
+            }
+            Thread writer = new Thread(this::drain, "trace-writer");
+            writer.setDaemon(true);
+            writer.start();
+        }
+
+        /** Records the event, or counts it as dropped if the buffer is full. Never blocks. */
+        public void publish(TraceEvent event, String id, String detail, long value) {
+            long sequence;
+            do {
+                sequence = claimed.get();
+                if (sequence - consumed.get() > mask) {
+                    dropped.increment();
+                    return;
+                }
+            } while (!claimed.compareAndSet(sequence, sequence + 1));
+            int slot = (int) sequence & mask;
+            events[slot] = event;
+            ids[slot] = id;
+            details[slot] = detail;
+            values[slot] = value;
+            published.set(slot, sequence);
+        }
+
+        private void drain() {
+            StringBuilder line = new StringBuilder(128);
+            long reportedDrops = 0;
+            while (true) {
+                long sequence = consumed.get();
+                int slot = (int) sequence & mask;
+                if (published.get(slot) != sequence) {
+                    long drops = dropped.sum();
+                    if (drops != reportedDrops) {
+                        output.dropped(drops - reportedDrops);
+                        reportedDrops = drops;
+                    }
+                    LockSupport.parkNanos(IDLE_NANOS);
+                    continue;
+                }
+                TraceEvent event = events[slot];
+                String id = ids[slot];
+                String detail = details[slot];
+                long value = values[slot];
+                ids[slot] = null;
+                details[slot] = null;
+                consumed.set(sequence + 1);
+
+                line.setLength(0);
+                event.format(line, id, detail, value);
+                output.write(event, line.toString());
+            }
+        }
+
+        /**
+         * Waits up to the timeout until every event claimed so far has been published and written. Returns whether
+         * they all were.
+         */
+        public boolean flush(long timeoutNanos) {
+            long target = claimed.get();
+            long deadline = System.nanoTime() + timeoutNanos;
+            while (consumed.get() < target) {
+                if (System.nanoTime() >= deadline) {
+                    return false;
+                }
+                LockSupport.parkNanos(IDLE_NANOS);
+            }
+            return true;
+        }
+
+        /** Number of events dropped because the buffer was full. */
+        public long getDropped() {
+            return dropped.sum();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+import com.css.challenge.client.Action;
+import com.css.challenge.client.ActionLog;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ActionLogTest {
+
+    @Test
+    void testCursorReadsBackAppendedColumns() {
+        ActionLog log = new ActionLog();
+        log.append(10, "a", Action.PLACE_CODE);
+        log.append(20, "b", Action.MOVE_CODE);
+        log.append(30, "a", Action.PICKUP_CODE);
+
+        ActionLog.Cursor cursor = log.cursor();
+        assertTrue(cursor.next());
+        assertEquals(10, cursor.timestamp());
+        assertEquals("a", cursor.id());
+        assertEquals(Action.PLACE, cursor.action());
+        assertTrue(cursor.next());
+        assertEquals("b", cursor.id());
+        assertEquals(Action.MOVE_CODE, cursor.code());
+        assertTrue(cursor.next());
+        assertEquals("a", cursor.id());
+        assertFalse(cursor.next());
+    }
+
+    @Test
+    void testConcurrentAppendsAreAllRecorded() throws InterruptedException {
+        ActionLog log = new ActionLog();
+        int threads = 8;
+        int perThread = 50_000;
+        List<Thread> producers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int producer = t;
+            producers.add(new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    log.append(i, producer + "-" + i, Action.DISCARD_CODE);
+                }
+            }));
+        }
+        producers.forEach(Thread::start);
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        Set<String> ids = new HashSet<>();
+        ActionLog.Cursor cursor = log.cursor();
+        while (cursor.next()) {
+            ids.add(cursor.id());
+        }
+        assertEquals(threads * perThread, log.size());
+        assertEquals(threads * perThread, ids.size());
+    }
+
+    @Test
+    void testSerializesLikeActionList() throws Exception {
+        ActionLog log = new ActionLog();
+        List<Action> list = new ArrayList<>();
+        log.append(1_000, "x1", Action.PLACE_CODE);
+        list.add(new Action(1_000, "x1", Action.PLACE));
+        log.append(2_000, "x1", Action.DISCARD_CODE);
+        list.add(new Action(2_000, "x1", Action.DISCARD));
+
+        ObjectMapper mapper = new ObjectMapper();
+        assertEquals(mapper.writeValueAsString(list), mapper.writeValueAsString(log));
+    }
+}
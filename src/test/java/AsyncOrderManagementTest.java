@@ -0,0 +1,67 @@
+import com.css.challenge.client.Action;
+import com.css.challenge.client.ActionLog;
+import com.css.challenge.client.Order;
+import com.css.challenge.management.AsyncOrderManagementSystem;
+import com.css.challenge.management.OrderManagementSystem;
+import com.css.challenge.management.PlacementResult;
+import com.css.challenge.storage.Location;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AsyncOrderManagementTest {
+
+    @Test
+    void testPlaceOrderAsync_ReportsActionsAndLocation() throws Exception {
+        ActionLog log = new ActionLog();
+        try (AsyncOrderManagementSystem oms = new AsyncOrderManagementSystem(new OrderManagementSystem(), log)) {
+            PlacementResult hot = oms.placeOrderAsync(Orders.order("1", "hot", 50)).get(5, TimeUnit.SECONDS);
+            PlacementResult room = oms.placeOrderAsync(Orders.order("2", "room", 50)).get(5, TimeUnit.SECONDS);
+            PlacementResult notReady = oms.pickupOrderAsync(Orders.order("2", "room", 50)).get(5, TimeUnit.SECONDS);
+
+            assertEquals(Location.HEATER, hot.getLocation());
+            assertEquals(1, hot.getActions().size());
+            assertEquals(Action.PLACE, hot.getActions().get(0).getAction());
+            assertEquals(Location.SHELF, room.getLocation());
+            assertTrue(notReady.getActions().isEmpty());
+            assertEquals(2, log.size());
+        }
+    }
+
+    @Test
+    void testConcurrentCallersAreAppliedOnce() throws Exception {
+        ActionLog log = new ActionLog();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        String[] temps = {"hot", "cold", "room"};
+        try {
+            AsyncOrderManagementSystem oms = new AsyncOrderManagementSystem(new OrderManagementSystem(), log, executor);
+            List<CompletableFuture<CompletableFuture<PlacementResult>>> submitted = new ArrayList<>();
+            for (int i = 0; i < 2000; i++) {
+                Order order = Orders.order(String.valueOf(i), temps[i % 3], 10 + i % 300);
+                submitted.add(CompletableFuture.supplyAsync(() -> oms.placeOrderAsync(order), callers));
+            }
+            long placed = 0;
+            long total = 0;
+            for (CompletableFuture<CompletableFuture<PlacementResult>> future : submitted) {
+                PlacementResult result = future.get(5, TimeUnit.SECONDS).get(5, TimeUnit.SECONDS);
+                assertTrue(result.getActions().stream()
+                        .anyMatch(a -> a.getId().equals(result.getOrderId()) && a.getAction().equals(Action.PLACE)));
+                placed++;
+                total += result.getActions().size();
+            }
+            assertEquals(2000, placed);
+            assertEquals(total, log.size());
+        } finally {
+            callers.shutdownNow();
+            executor.shutdownNow();
+        }
+    }
+}
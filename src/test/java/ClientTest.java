@@ -0,0 +1,90 @@
+import com.css.challenge.client.Action;
+import com.css.challenge.client.ActionLog;
+import com.css.challenge.client.Client;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ClientTest {
+
+    private HttpServer server;
+    private volatile String body;
+    private volatile String transferEncoding;
+    private volatile String testId;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/interview/challenge/solve", exchange -> {
+            transferEncoding = exchange.getRequestHeaders().getFirst("Transfer-Encoding");
+            testId = exchange.getRequestHeaders().getFirst("x-test-id");
+            InputStream in = exchange.getRequestBody();
+            if ("gzip".equals(exchange.getRequestHeaders().getFirst("Content-Encoding"))) {
+                in = new GZIPInputStream(in);
+            }
+            body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            byte[] response = "pass".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    private String endpoint() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @Test
+    void testSolveProblem_StreamsActionLogChunked() throws IOException {
+        ActionLog log = new ActionLog();
+        for (int i = 0; i < 20_000; i++) {
+            log.append(i, "order-" + i, Action.PLACE_CODE);
+        }
+
+        String result = new Client(endpoint(), "token").solveProblem("test-1",
+                Duration.ofMillis(500), Duration.ofSeconds(4), Duration.ofSeconds(8), log);
+
+        assertEquals("pass", result);
+        assertEquals("test-1", testId);
+        assertEquals("chunked", transferEncoding);
+        JsonNode solution = new ObjectMapper().readTree(body);
+        assertEquals(500_000, solution.get("options").get("rate").asLong());
+        assertEquals(20_000, solution.get("actions").size());
+        assertEquals("order-19999", solution.get("actions").get(19_999).get("id").asText());
+    }
+
+    @Test
+    void testSolveProblem_GzipMatchesPlainEncoding() throws IOException {
+        List<Action> actions = List.of(new Action(1, "a", Action.PLACE), new Action(2, "a", Action.PICKUP));
+
+        new Client(endpoint(), "token").solveProblem("test-2",
+                Duration.ofMillis(500), Duration.ofSeconds(4), Duration.ofSeconds(8), actions);
+        String plain = body;
+        new Client(endpoint(), "token", true).solveProblem("test-2",
+                Duration.ofMillis(500), Duration.ofSeconds(4), Duration.ofSeconds(8), actions);
+
+        assertEquals(plain, body);
+        assertTrue(body.contains("\"action\":\"pickup\""));
+    }
+}
@@ -0,0 +1,140 @@
+import com.css.challenge.client.Action;
+import com.css.challenge.client.ActionLog;
+import com.css.challenge.client.Order;
+import com.css.challenge.config.Config;
+import com.css.challenge.management.OrderManagementSystem;
+import com.css.challenge.management.VirtualClock;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExpiryTest {
+    private static final long START = 1_700_000_000_000_000L;
+    private static final long SECOND = 1_000_000L;
+
+    private static Config expiryConfig(int heaterCapacity) {
+        Properties properties = new Properties();
+        properties.setProperty("expiry.sweep", "true");
+        properties.setProperty("heater.capacity", String.valueOf(heaterCapacity));
+        return Config.parse(properties);
+    }
+
+    @Test
+    void testExpireOrders_DiscardsOrdersAsTheyExpire() {
+        Config original = Config.get();
+        Config.set(expiryConfig(6));
+        try {
+            VirtualClock clock = new VirtualClock(START);
+            OrderManagementSystem oms = new OrderManagementSystem(clock);
+            List<Action> actions = new ArrayList<>();
+            oms.placeOrder(Orders.order("h", "hot", 3, clock.instant()), actions);
+            oms.placeOrder(Orders.order("c", "cold", 100, clock.instant()), actions);
+            oms.placeOrder(Orders.order("r", "room", 20, clock.instant()), actions);
+            Order picked = Orders.order("p", "cold", 100, clock.instant());
+            oms.placeOrder(picked, actions);
+            actions.clear();
+
+            clock.advanceTo(START + 2 * SECOND);
+            assertEquals(0, oms.expireOrders(actions));
+
+            clock.advanceTo(START + 3 * SECOND + SECOND / 10);
+            assertEquals(1, oms.expireOrders(actions));
+            assertEquals("h", actions.get(0).getId());
+            assertEquals(Action.DISCARD, actions.get(0).getAction());
+            assertEquals(0, oms.getMetrics().getHeaterOccupancy());
+
+            clock.advanceTo(START + 5 * SECOND);
+            oms.pickupOrder(picked, actions);
+            actions.clear();
+
+            // c and r are still fresh but fall out of the pickup window
+            clock.advanceTo(START + 8 * SECOND + SECOND / 10);
+            assertEquals(2, oms.expireOrders(actions));
+            assertTrue(actions.stream().allMatch(a -> a.getAction().equals(Action.DISCARD)));
+            assertEquals(0, oms.getOrderTable().size());
+        } finally {
+            Config.set(original);
+        }
+    }
+
+    @Test
+    void testExpireOrders_RefillsFreedSlotFromShelf() {
+        Config original = Config.get();
+        Config.set(expiryConfig(1));
+        try {
+            VirtualClock clock = new VirtualClock(START);
+            OrderManagementSystem oms = new OrderManagementSystem(clock);
+            List<Action> actions = new ArrayList<>();
+            oms.placeOrder(Orders.order("h1", "hot", 3, clock.instant()), actions);
+            oms.placeOrder(Orders.order("h2", "hot", 100, clock.instant()), actions);
+            assertEquals(1, oms.getMetrics().getShelfOccupancy());
+            actions.clear();
+
+            clock.advanceTo(START + 3 * SECOND + SECOND / 10);
+            assertEquals(1, oms.expireOrders(actions));
+
+            assertEquals(2, actions.size());
+            assertEquals(Action.DISCARD, actions.get(0).getAction());
+            assertEquals("h2", actions.get(1).getId());
+            assertEquals(Action.MOVE, actions.get(1).getAction());
+            assertEquals(1, oms.getMetrics().getHeaterOccupancy());
+            assertEquals(0, oms.getMetrics().getShelfOccupancy());
+        } finally {
+            Config.set(original);
+        }
+    }
+
+    @Test
+    void testExpireOrders_SeesOrdersScheduledConcurrentlyWithSweeps() throws Exception {
+        Config original = Config.get();
+        Properties properties = new Properties();
+        properties.setProperty("expiry.sweep", "true");
+        properties.setProperty("cooler.capacity", "2000");
+        properties.setProperty("heater.capacity", "2000");
+        properties.setProperty("shelf.capacity", "2000");
+        Config.set(Config.parse(properties));
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        try {
+            VirtualClock clock = new VirtualClock(START);
+            OrderManagementSystem oms = new OrderManagementSystem(clock);
+            ActionLog log = new ActionLog();
+            AtomicBoolean placing = new AtomicBoolean(true);
+            Future<?> sweeper = executor.submit(() -> {
+                while (placing.get()) {
+                    oms.expireOrders(log); // nothing is due yet, but every sweep drains what has been scheduled
+                }
+            });
+            String[] temps = {"hot", "cold", "room"};
+            List<Future<?>> placers = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int thread = t;
+                placers.add(executor.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        oms.placeOrder(Orders.order(thread + "-" + i, temps[i % 3], 100, clock.instant()), log);
+                    }
+                }));
+            }
+            for (Future<?> placer : placers) {
+                placer.get();
+            }
+            placing.set(false);
+            sweeper.get();
+            assertEquals(0, log.toList().stream().filter(a -> a.getAction().equals(Action.DISCARD)).count());
+
+            clock.advanceTo(START + 8 * SECOND + SECOND / 10);
+            assertEquals(2000, oms.expireOrders(log));
+            assertEquals(0, oms.getOrderTable().size());
+        } finally {
+            executor.shutdownNow();
+            Config.set(original);
+        }
+    }
+}
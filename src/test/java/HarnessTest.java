@@ -0,0 +1,48 @@
+import com.css.challenge.client.Action;
+import com.css.challenge.client.ActionSink;
+import com.css.challenge.client.Order;
+import com.css.challenge.config.Config;
+import com.css.challenge.management.Harness;
+import com.css.challenge.management.OrderManagementSystem;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HarnessTest {
+
+    @Test
+    void testRunWaitsForEveryPickup() throws Exception {
+        Config original = Config.get();
+        Properties properties = new Properties();
+        properties.setProperty("epoch.to.seconds", "20000"); // one second of freshness lasts 20 ms
+        properties.setProperty("cooler.capacity", "1000");
+        properties.setProperty("heater.capacity", "1000");
+        properties.setProperty("shelf.capacity", "1000");
+        Config.set(Config.parse(properties));
+        try {
+            List<Order> orders = new ArrayList<>();
+            String[] temps = {"hot", "cold", "room"};
+            for (int i = 0; i < 600; i++) {
+                orders.add(new Order(String.valueOf(i), "Food " + i, temps[i % 3], 100));
+            }
+            List<Action> actions = Collections.synchronizedList(new ArrayList<>());
+            OrderManagementSystem oms = new OrderManagementSystem();
+            Harness harness = new Harness(oms, ActionSink.of(actions), Duration.ZERO,
+                    Duration.ofMillis(90), Duration.ofMillis(100), 7); // ready from 80 ms, 60 ms of slack before 160 ms
+
+            assertEquals(600, harness.run(orders.iterator()));
+
+            assertEquals(1200, actions.size());
+            assertEquals(600, actions.stream().filter(a -> a.getAction().equals(Action.PICKUP)).count());
+            assertEquals(0, oms.getOrderTable().size());
+        } finally {
+            Config.set(original);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+import com.css.challenge.client.ActionLog;
+import com.css.challenge.client.ActionSink;
+import com.css.challenge.client.Order;
+import com.css.challenge.management.IngressPipeline;
+import com.css.challenge.management.IngressPipeline.OverflowPolicy;
+import com.css.challenge.management.OrderManagementSystem;
+import com.css.challenge.metrics.IngressMetrics;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IngressPipelineTest {
+
+    @Test
+    void testReject_TurnsOrdersAwayWhenFull() throws Exception {
+        ActionLog log = new ActionLog();
+        List<String> placed = new CopyOnWriteArrayList<>();
+        IngressPipeline pipeline = new IngressPipeline(new OrderManagementSystem(), log, 2, OverflowPolicy.REJECT,
+                order -> placed.add(order.getId()));
+
+        assertTrue(pipeline.submit(Orders.order("1", "room", 50)));
+        assertTrue(pipeline.submit(Orders.order("2", "room", 50)));
+        assertFalse(pipeline.submit(Orders.order("3", "room", 50)));
+        assertEquals(2, pipeline.getMetrics().getQueueDepth());
+        pipeline.close();
+
+        IngressMetrics metrics = pipeline.getMetrics();
+        assertEquals(List.of("1", "2"), placed);
+        assertEquals(2, log.size());
+        assertEquals(2, metrics.getAccepted());
+        assertEquals(1, metrics.getRejected());
+        assertEquals(2, metrics.getMaxQueueDepth());
+        assertEquals(0, metrics.getQueueDepth());
+        assertEquals(2, metrics.getWaitTime().getCount());
+    }
+
+    @Test
+    void testShed_DropsLeastFreshAndKeepsArrivalOrder() throws Exception {
+        List<String> placed = new CopyOnWriteArrayList<>();
+        IngressPipeline pipeline = new IngressPipeline(new OrderManagementSystem(), new ActionLog(), 3,
+                OverflowPolicy.SHED_LEAST_FRESH, order -> placed.add(order.getId()));
+
+        pipeline.submit(Orders.order("a", "room", 50));
+        pipeline.submit(Orders.order("b", "room", 10));
+        pipeline.submit(Orders.order("c", "room", 30));
+        assertTrue(pipeline.submit(Orders.order("d", "room", 40))); // sheds b
+        assertFalse(pipeline.submit(Orders.order("e", "room", 20))); // least fresh itself
+        pipeline.close();
+
+        assertEquals(List.of("a", "c", "d"), placed);
+        assertEquals(2, pipeline.getMetrics().getShed());
+    }
+
+    @Test
+    void testBlock_WaitsForRoom() throws Exception {
+        List<String> placed = new CopyOnWriteArrayList<>();
+        IngressPipeline pipeline = new IngressPipeline(new OrderManagementSystem(), new ActionLog(), 1,
+                OverflowPolicy.BLOCK, order -> placed.add(order.getId()));
+        pipeline.submit(Orders.order("1", "room", 50));
+
+        CompletableFuture<Boolean> blocked = CompletableFuture.supplyAsync(() -> {
+            try {
+                return pipeline.submit(Orders.order("2", "room", 50));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(50);
+        assertFalse(blocked.isDone());
+
+        pipeline.start();
+        assertTrue(blocked.get(5, TimeUnit.SECONDS));
+        pipeline.close();
+
+        assertEquals(List.of("1", "2"), placed);
+        assertEquals(0, pipeline.getMetrics().getRejected());
+    }
+
+    @Test
+    void testFailedBatch_HandsOnOnlyTheOrdersItPlaced() throws Exception {
+        OrderManagementSystem oms = new OrderManagementSystem() {
+            @Override
+            public void placeOrders(Collection<Order> orders, ActionSink actions) {
+                placeOrder(orders.iterator().next(), actions);
+                throw new IllegalStateException("failed after the first order");
+            }
+        };
+        List<String> placed = new CopyOnWriteArrayList<>();
+        IngressPipeline pipeline = new IngressPipeline(oms, new ActionLog(), 4, OverflowPolicy.BLOCK,
+                order -> placed.add(order.getId()));
+        for (String id : List.of("1", "2", "3")) {
+            pipeline.submit(oms.getOrderTable().intern(List.of(Orders.order(id, "room", 50)).iterator()).next());
+        }
+        pipeline.close();
+
+        assertEquals(List.of("1"), placed);
+        assertEquals(1, oms.getOrderTable().size()); // the orders never placed gave their handles back
+    }
+
+    @Test
+    void testFailingCallback_DoesNotCostTheRestOfTheBatch() throws Exception {
+        List<String> placed = new CopyOnWriteArrayList<>();
+        IngressPipeline pipeline = new IngressPipeline(new OrderManagementSystem(), new ActionLog(), 4,
+                OverflowPolicy.BLOCK, order -> {
+                    if (order.getId().equals("1")) {
+                        throw new IllegalStateException("scheduler full");
+                    }
+                    placed.add(order.getId());
+                });
+        for (String id : List.of("1", "2", "3")) {
+            pipeline.submit(Orders.order(id, "room", 50));
+        }
+        pipeline.close();
+
+        assertEquals(List.of("2", "3"), placed);
+    }
+}
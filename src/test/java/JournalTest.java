@@ -0,0 +1,242 @@
+import com.css.challenge.client.Action;
+import com.css.challenge.client.ActionLog;
+import com.css.challenge.client.Order;
+import com.css.challenge.journal.Journal;
+import com.css.challenge.journal.Snapshot;
+import com.css.challenge.management.OrderManagementSystem;
+import com.css.challenge.storage.Location;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JournalTest {
+
+    @TempDir
+    Path directory;
+
+    private static List<Order> orders(String prefix, int count, long seed, Instant placedAt) {
+        String[] temps = {"hot", "cold", "room"};
+        Random random = new Random(seed);
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Order order = new Order(prefix + i, "Food " + i, temps[random.nextInt(3)], 10 + random.nextInt(300));
+            order.setTimestamp(placedAt);
+            orders.add(order);
+        }
+        return orders;
+    }
+
+    private static List<String> describe(List<Action> actions) {
+        List<String> described = new ArrayList<>();
+        for (Action action : actions) {
+            described.add(action.getTimestamp() + " " + action.getId() + " " + action.getAction());
+        }
+        return described;
+    }
+
+    @Test
+    void testRecoverRestoresActionsAndStorage() throws Exception {
+        Instant placedAt = Instant.now();
+        ActionLog before = new ActionLog();
+        try (Journal journal = new Journal(directory, 4096, 1)) {
+            OrderManagementSystem journaled = new OrderManagementSystem(Clock.systemUTC(), journal);
+            for (Order order : orders("a", 60, 1, placedAt)) {
+                journaled.placeOrder(order, before);
+            }
+        }
+        // Placement decisions do not depend on the clock, so an unjournaled system fed the same orders ends up with
+        // the same contents as the one that crashed.
+        OrderManagementSystem original = new OrderManagementSystem();
+        for (Order order : orders("a", 60, 1, placedAt)) {
+            original.placeOrder(order, new ArrayList<>());
+        }
+        assertTrue(segments().size() > 1, "a small segment size should roll the journal");
+
+        OrderManagementSystem recovered = new OrderManagementSystem();
+        ActionLog after = new ActionLog();
+        assertEquals(before.size(), recovered.recover(directory, after));
+        assertEquals(describe(before.toList()), describe(after.toList()));
+        assertEquals(original.getOrderTable().size(), recovered.getOrderTable().size());
+
+        // Both systems hold the same orders in the same places, so they make the same decisions from here on.
+        List<Action> originalNext = new ArrayList<>();
+        List<Action> recoveredNext = new ArrayList<>();
+        Instant now = Instant.now();
+        for (Order order : orders("b", 20, 2, now)) {
+            original.placeOrder(order, originalNext);
+        }
+        for (Order order : orders("b", 20, 2, now)) {
+            recovered.placeOrder(order, recoveredNext);
+        }
+        assertEquals(ids(originalNext), ids(recoveredNext));
+    }
+
+    @Test
+    void testRecoverFromSnapshotReplaysOnlyTheJournalTail() throws Exception {
+        Instant placedAt = Instant.now();
+        List<Order> orders = orders("a", 80, 3, placedAt);
+        long afterSnapshot;
+        try (Journal journal = new Journal(directory, 4096, 1)) {
+            OrderManagementSystem journaled = new OrderManagementSystem(Clock.systemUTC(), journal);
+            ActionLog actions = new ActionLog();
+            for (Order order : orders.subList(0, 60)) {
+                journaled.placeOrder(order, actions);
+            }
+            assertEquals(journaled.getOrderTable().size(), journaled.snapshot(directory));
+            long atSnapshot = actions.size();
+            for (Order order : orders.subList(60, 80)) {
+                journaled.placeOrder(order, actions);
+            }
+            afterSnapshot = actions.size() - atSnapshot;
+        }
+        assertTrue(Files.exists(directory.resolve(Snapshot.FILE)));
+        assertEquals(1, segments().stream().filter(file -> file.toString().endsWith(".log")).count(),
+                "segments before the snapshot should have been dropped");
+
+        OrderManagementSystem original = new OrderManagementSystem();
+        for (Order order : orders("a", 80, 3, placedAt)) {
+            original.placeOrder(order, new ArrayList<>());
+        }
+        OrderManagementSystem recovered = new OrderManagementSystem();
+        assertEquals(afterSnapshot, recovered.recover(directory, new ActionLog()));
+        assertEquals(original.getOrderTable().size(), recovered.getOrderTable().size());
+
+        List<Action> originalNext = new ArrayList<>();
+        List<Action> recoveredNext = new ArrayList<>();
+        Instant now = Instant.now();
+        for (Order order : orders("b", 30, 4, now)) {
+            original.placeOrder(order, originalNext);
+        }
+        for (Order order : orders("b", 30, 4, now)) {
+            recovered.placeOrder(order, recoveredNext);
+        }
+        assertEquals(ids(originalNext), ids(recoveredNext));
+    }
+
+    @Test
+    void testSnapshotsTakenUnderLoadRecoverTheSameContents() throws Exception {
+        Instant placedAt = Instant.now().minusSeconds(5); // hot orders are ready for pickup
+        try (Journal journal = new Journal(directory, 1 << 14, 1)) {
+            OrderManagementSystem journaled = new OrderManagementSystem(Clock.systemUTC(), journal);
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            try {
+                List<Future<?>> placers = new ArrayList<>();
+                for (int t = 0; t < 3; t++) {
+                    List<Order> orders = distinctFreshness(orders("t" + t + "-", 500, t, placedAt), t * 500);
+                    placers.add(executor.submit(() -> {
+                        for (int i = 0; i < orders.size(); i++) {
+                            journaled.placeOrder(orders.get(i), new ArrayList<>());
+                            if (i % 2 == 0) {
+                                journaled.pickupOrder(orders.get(i), new ArrayList<>());
+                            }
+                        }
+                    }));
+                }
+                Future<Integer> snapshots = executor.submit(() -> {
+                    int taken = 0;
+                    while (!placers.stream().allMatch(Future::isDone) || taken == 0) {
+                        journaled.snapshot(directory);
+                        taken++;
+                    }
+                    return taken;
+                });
+                for (Future<?> placer : placers) {
+                    placer.get();
+                }
+                assertTrue(snapshots.get() > 0);
+            } finally {
+                executor.shutdownNow();
+            }
+            journal.sync();
+
+            // The journal stays open, so the journaled system can be compared with the recovered one afterwards.
+            OrderManagementSystem recovered = new OrderManagementSystem();
+            recovered.recover(directory, new ActionLog());
+            assertEquals(journaled.getOrderTable().size(), recovered.getOrderTable().size());
+
+            List<Action> journaledNext = new ArrayList<>();
+            List<Action> recoveredNext = new ArrayList<>();
+            Instant now = Instant.now();
+            for (Order order : distinctFreshness(orders("b", 60, 5, now), 1500)) {
+                journaled.placeOrder(order, journaledNext);
+            }
+            for (Order order : distinctFreshness(orders("b", 60, 5, now), 1500)) {
+                recovered.placeOrder(order, recoveredNext);
+            }
+            assertEquals(ids(journaledNext), ids(recoveredNext));
+        }
+    }
+
+    /**
+     * Gives the orders freshness values that no other order shares, even once halved on the shelf, so which order is
+     * least fresh never comes down to a tie between equal deadlines.
+     */
+    private static List<Order> distinctFreshness(List<Order> orders, int first) {
+        for (int i = 0; i < orders.size(); i++) {
+            orders.get(i).setFreshness(4 * (first + i) + 2);
+        }
+        return orders;
+    }
+
+    private static List<String> ids(List<Action> actions) {
+        List<String> ids = new ArrayList<>();
+        for (Action action : actions) {
+            ids.add(action.getId() + " " + action.getAction());
+        }
+        return ids;
+    }
+
+    @Test
+    void testTornTailIsTruncatedOnReopen() throws Exception {
+        Order order = new Order("1", "Soup", "hot", 60);
+        order.setTimestamp(Instant.now());
+        try (Journal journal = new Journal(directory, 1 << 16, 1)) {
+            journal.append(100, Action.PLACE_CODE, Location.HEATER, order);
+            journal.append(200, Action.MOVE_CODE, Location.SHELF, order);
+        }
+
+        // Simulate a crash halfway through writing a third record: a length and a checksum that does not match.
+        Path segment = segments().get(0);
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(segment)).order(ByteOrder.LITTLE_ENDIAN);
+        int end = 0;
+        while (bytes.getInt(end) != 0) {
+            end += 2 * Integer.BYTES + bytes.getInt(end);
+        }
+        bytes.putInt(end, 40).putInt(end + 4, 12345).put(end + 8, (byte) 7);
+        Files.write(segment, bytes.array());
+
+        try (Journal journal = new Journal(directory, 1 << 16, 1)) {
+            journal.append(300, Action.PICKUP_CODE, Location.NONE, order);
+            journal.sync();
+        }
+
+        List<String> records = new ArrayList<>();
+        Journal.replay(directory, (timestamp, action, location, replayed) -> {
+            assertEquals("Soup", replayed.getName());
+            assertEquals(order.getTimestamp(), replayed.getTimestamp());
+            records.add(timestamp + " " + Action.name(action) + " " + location);
+        });
+        assertEquals(List.of("100 place HEATER", "200 move SHELF", "300 pickup NONE"), records);
+    }
+
+    private List<Path> segments() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+}
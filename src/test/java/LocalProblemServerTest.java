@@ -0,0 +1,83 @@
+import com.css.challenge.client.Action;
+import com.css.challenge.client.ActionLog;
+import com.css.challenge.client.Client;
+import com.css.challenge.client.Order;
+import com.css.challenge.client.Problem;
+import com.css.challenge.client.ProblemStream;
+import com.css.challenge.server.LocalProblemServer;
+import com.css.challenge.server.OrderGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LocalProblemServerTest {
+
+    private LocalProblemServer server;
+    private Client client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new LocalProblemServer(0, new LocalProblemServer.Settings(500, 2, 1, 1, 10, 20));
+        server.start();
+        client = new Client(server.getEndpoint(), "token");
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void testGeneratorIsReproducibleAndHonoursSettings() {
+        OrderGenerator first = new OrderGenerator(1_000, 7, 1, 0, 1, 10, 20);
+        OrderGenerator second = new OrderGenerator(1_000, 7, 1, 0, 1, 10, 20);
+
+        while (first.hasNext()) {
+            Order a = first.next();
+            Order b = second.next();
+            assertEquals(a.toString(), b.toString());
+            assertNotEquals("cold", a.getTemp());
+            assertTrue(a.getFreshness() >= 10 && a.getFreshness() <= 20);
+        }
+        assertFalse(second.hasNext());
+    }
+
+    @Test
+    void testServesProblemsThroughClient() throws IOException {
+        Problem problem = client.newProblem("", 42);
+        List<Order> streamed = new ArrayList<>();
+        try (ProblemStream stream = client.streamProblem("", 42)) {
+            stream.getOrders().forEachRemaining(streamed::add);
+            assertNotEquals(problem.getTestId(), stream.getTestId());
+        }
+
+        assertEquals(500, problem.getOrders().size());
+        assertEquals(500, streamed.size());
+        assertEquals(problem.getOrders().get(499).toString(), streamed.get(499).toString());
+    }
+
+    @Test
+    void testSolveCountsActions() throws IOException {
+        Problem problem = client.newProblem("", 1);
+        ActionLog actions = new ActionLog();
+        for (Order order : problem.getOrders()) {
+            actions.append(1, order.getId(), Action.PLACE_CODE);
+            actions.append(2, order.getId(), Action.DISCARD_CODE);
+        }
+
+        String result = client.solveProblem(problem.getTestId(),
+                Duration.ofMillis(500), Duration.ofSeconds(4), Duration.ofSeconds(8), actions);
+
+        assertTrue(result.contains("1000 actions"), result);
+        assertTrue(result.contains("discard=500"), result);
+        assertThrows(IOException.class, () -> client.solveProblem(problem.getTestId(),
+                Duration.ofMillis(500), Duration.ofSeconds(4), Duration.ofSeconds(8), actions));
+    }
+}
@@ -0,0 +1,132 @@
+import com.css.challenge.client.Action;
+import com.css.challenge.client.Order;
+import com.css.challenge.config.Config;
+import com.css.challenge.management.Simulation;
+import com.css.challenge.storage.OffHeapShelf;
+import com.css.challenge.storage.OffHeapStorage;
+import com.css.challenge.storage.Shelf;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OffHeapStorageTest {
+
+    @Test
+    void testShelfMatchesHeapShelfUnderRandomOperations() {
+        Shelf heap = new Shelf(64);
+        Shelf offHeap = new OffHeapShelf(16);
+        offHeap.setCapacity(64); // forces the slab to grow while in use
+        String[] temps = {"hot", "cold", "room"};
+        Random random = new Random(3);
+
+        for (int i = 0; i < 20_000; i++) {
+            // every other id is too long for a slab record and is stored out of line
+            String id = (random.nextBoolean() ? "order-" : "order-with-an-id-beyond-the-record-") + random.nextInt(200);
+            if (random.nextInt(3) > 0) {
+                String temp = temps[random.nextInt(3)];
+                int freshness = 1 + random.nextInt(10_000);
+                Order order = Orders.order(id, temp, freshness);
+                Order copy = new Order(id, order.getName(), temp, freshness);
+                copy.setTimestamp(order.getTimestamp());
+                assertEquals(heap.addOrder(order), offHeap.addOrder(copy));
+            } else {
+                assertEquals(heap.removeOrder(id), offHeap.removeOrder(id));
+            }
+            assertEquals(heap.isFull(), offHeap.isFull());
+            assertEquals(deadline(heap.getOrderToDiscard()), deadline(offHeap.getOrderToDiscard()));
+            assertEquals(deadline(heap.getLeastFreshHotOrder()), deadline(offHeap.getLeastFreshHotOrder()));
+            assertEquals(deadline(heap.getLeastFreshColdOrder()), deadline(offHeap.getLeastFreshColdOrder()));
+        }
+    }
+
+    private static Long deadline(Order order) {
+        return order == null ? null : order.getDeadline();
+    }
+
+    @Test
+    void testStorageRoundTripsOrderFields() {
+        OffHeapStorage storage = new OffHeapStorage(2);
+        Order order = new Order("a1b2c", "Caesar Salad", "cold", 90);
+        order.setTimestamp(Instant.now().minusSeconds(5));
+
+        assertTrue(storage.moveOrder(order));
+        assertTrue(storage.addOrder(Orders.order("x", "cold", 10)));
+        assertTrue(storage.isFull());
+        assertEquals(45, order.getFreshness());
+
+        List<Action> actions = new ArrayList<>();
+        assertTrue(storage.pickupOrder("a1b2c", actions));
+        assertFalse(storage.isFull());
+        assertFalse(storage.removeOrder("a1b2c"));
+        assertTrue(storage.removeOrder("x"));
+        assertEquals(0, storage.size());
+    }
+
+    @Test
+    void testLongIdsAreStoredWithoutLeakingSlots() {
+        OffHeapStorage storage = new OffHeapStorage(2);
+        String longId = "x".repeat(40);
+
+        assertTrue(storage.addOrder(Orders.order(longId, "cold", 10)));
+        assertTrue(storage.addOrder(Orders.order("y".repeat(33), "cold", 10)));
+        assertTrue(storage.isFull());
+        assertFalse(storage.removeOrder("x".repeat(32)));
+
+        List<Order> stored = new ArrayList<>();
+        storage.getLock().lock();
+        try {
+            storage.copyOrders(stored);
+        } finally {
+            storage.getLock().unlock();
+        }
+        assertEquals(Set.of(longId, "y".repeat(33)), Set.of(stored.get(0).getId(), stored.get(1).getId()));
+
+        assertTrue(storage.removeOrder(longId));
+        assertFalse(storage.isFull());
+        assertTrue(storage.addOrder(Orders.order("z", "cold", 10)));
+        assertTrue(storage.isFull());
+        assertEquals(2, storage.size());
+    }
+
+    @Test
+    void testSimulationIsIdenticalWithOffHeapBackend() {
+        Config original = Config.get();
+        List<Order> orders = new ArrayList<>();
+        String[] temps = {"hot", "cold", "room"};
+        for (int i = 0; i < 1_000; i++) {
+            orders.add(new Order(String.valueOf(i), "Food " + i, temps[i % 3], 30 + i % 90));
+        }
+        try {
+            List<Action> onHeap = simulate(orders, "heap");
+            List<Action> offHeap = simulate(orders, "offheap");
+            assertEquals(onHeap.size(), offHeap.size());
+            for (int i = 0; i < onHeap.size(); i++) {
+                assertEquals(onHeap.get(i).getId(), offHeap.get(i).getId());
+                assertEquals(onHeap.get(i).getAction(), offHeap.get(i).getAction());
+                assertEquals(onHeap.get(i).getTimestamp(), offHeap.get(i).getTimestamp());
+            }
+        } finally {
+            Config.set(original);
+        }
+    }
+
+    private static List<Action> simulate(List<Order> template, String backend) {
+        Properties properties = new Properties();
+        properties.setProperty("storage.backend", backend);
+        Config.set(Config.parse(properties));
+        List<Order> orders = new ArrayList<>();
+        for (Order order : template) {
+            orders.add(new Order(order.getId(), order.getName(), order.getTemp(), order.getFreshness()));
+        }
+        return new Simulation(Duration.ofMillis(10), Duration.ofSeconds(4), Duration.ofSeconds(8), 11)
+                .run(orders, 1_700_000_000_000_000L);
+    }
+}
@@ -1,6 +1,10 @@
 import com.css.challenge.client.Action;
+import com.css.challenge.client.ActionLog;
 import com.css.challenge.client.Order;
+import com.css.challenge.client.Temperature;
 import com.css.challenge.management.OrderManagementSystem;
+import com.css.challenge.storage.Location;
+import com.css.challenge.storage.OrderTable;
 import com.css.challenge.storage.Shelf;
 import com.css.challenge.storage.Storage;
 import org.junit.jupiter.api.BeforeEach;
@@ -8,10 +12,19 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.time.Clock;
 import java.time.Instant;
+import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -124,4 +137,252 @@ public class OrderManagementTest {
         assertEquals(Action.PLACE, actions.get(0).getAction());
     }
 
+    @Test
+    void testHandleRoomOrders_WhenEverythingIsFull_HalvesFreshnessOfDisplacingOrder() {
+        List<Action> actions = new ArrayList<>();
+        oms.placeOrders(batch("h", "hot", 6, 100, Instant.now()), actions);
+        oms.placeOrders(batch("c", "cold", 6, 100, Instant.now()), actions);
+        oms.placeOrders(batch("r", "room", 12, 200, Instant.now()), actions);
+        actions.clear();
+        Order order = new Order("7", "Salad", "room", 100);
+        order.setTimestamp(Instant.now());
+
+        oms.placeOrder(order, actions);
+
+        assertEquals(List.of(Action.DISCARD, Action.PLACE), actions.stream().map(Action::getAction).toList());
+        assertEquals(50, order.getFreshness());
+    }
+
+
+    private static List<Order> batch(String prefix, String temp, int count, int freshness, Instant timestamp) {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Order order = new Order(prefix + i, "Food " + i, temp, freshness + i);
+            order.setTimestamp(timestamp);
+            orders.add(order);
+        }
+        return orders;
+    }
+
+    private static long count(List<Action> actions, String action) {
+        return actions.stream().filter(a -> a.getAction().equals(action)).count();
+    }
+
+    @Test
+    void testPlaceOrders_FillsIdealStoragesThenShelf() {
+        List<Order> orders = new ArrayList<>();
+        orders.addAll(batch("h", "hot", 8, 100, Instant.now()));
+        orders.addAll(batch("c", "cold", 8, 100, Instant.now()));
+        orders.addAll(batch("r", "room", 8, 100, Instant.now()));
+        List<Action> actions = new ArrayList<>();
+
+        oms.placeOrders(orders, actions);
+
+        assertEquals(24, actions.size());
+        assertEquals(24, count(actions, Action.PLACE));
+        assertEquals(6, oms.getMetrics().getHeaterOccupancy());
+        assertEquals(6, oms.getMetrics().getCoolerOccupancy());
+        assertEquals(12, oms.getMetrics().getShelfOccupancy());
+    }
+
+    @Test
+    void testPlaceOrders_MatchesPlacingOneAtATime() {
+        Clock clock = Clock.fixed(Instant.parse("2024-01-01T00:00:00Z"), ZoneOffset.UTC);
+        OrderManagementSystem single = new OrderManagementSystem(clock);
+        OrderManagementSystem batched = new OrderManagementSystem(clock);
+        List<Action> singleActions = new ArrayList<>();
+        List<Action> batchedActions = new ArrayList<>();
+        List<Order> singleOrders = mixed(clock.instant());
+        List<Order> batchedOrders = mixed(clock.instant());
+
+        for (Order order : singleOrders) {
+            single.placeOrder(order, singleActions);
+        }
+        batched.placeOrders(batchedOrders, batchedActions);
+
+        assertEquals(describe(singleActions), describe(batchedActions));
+        assertTrue(count(batchedActions, Action.DISCARD) > 0);
+        for (int i = 0; i < singleOrders.size(); i++) {
+            Order one = singleOrders.get(i);
+            Order other = batchedOrders.get(i);
+            assertEquals(location(single, one), location(batched, other), one.getId());
+            assertEquals(one.getFreshness(), other.getFreshness(), one.getId());
+            assertEquals(one.getTimestamp(), other.getTimestamp(), one.getId());
+        }
+        assertEquals(single.getOrderTable().size(), batched.getOrderTable().size());
+    }
+
+    /** Hot, cold and room orders in turn with assorted freshness, enough to overflow the shelf. */
+    private static List<Order> mixed(Instant arrival) {
+        String[] temps = {"hot", "cold", "room"};
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 45; i++) {
+            Order order = new Order("o" + i, "Food " + i, temps[i % 3], 20 + (i * 37) % 200);
+            order.setTimestamp(arrival.minusMillis(i));
+            orders.add(order);
+        }
+        return orders;
+    }
+
+    private static List<String> describe(List<Action> actions) {
+        return actions.stream().map(a -> a.getTimestamp() + " " + a.getId() + " " + a.getAction()).toList();
+    }
+
+    private static Location location(OrderManagementSystem oms, Order order) {
+        OrderTable table = oms.getOrderTable();
+        return table.location(table.handle(order));
+    }
+
+    @Test
+    void testPlaceOrder_WhenNothingCanBeEvicted_DiscardsIncomingOrder() {
+        List<Action> actions = new ArrayList<>();
+        oms.setPlacementPolicy((incoming, cooler, heater, shelf, now) -> null);
+        oms.placeOrders(batch("r", "room", 12, 200, Instant.now()), actions);
+        Order order = new Order("late", "Salad", "room", 100);
+        order.setTimestamp(Instant.now());
+        actions.clear();
+
+        oms.placeOrders(List.of(order), actions);
+        oms.placeOrder(new Order("later", "Soup", "room", 100), actions);
+
+        assertEquals(List.of("late", "later"), actions.stream().map(Action::getId).toList());
+        assertEquals(2, count(actions, Action.DISCARD));
+        assertEquals(12, oms.getOrderTable().size());
+        assertEquals(Location.NONE, location(oms, order));
+    }
+
+    @Test
+    void testConcurrentPlacementsAndPickups_KeepCapacitiesAndEveryOrderInOnePlace() throws Exception {
+        String[] temps = {"hot", "cold", "room"};
+        List<List<Order>> perThread = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            List<Order> orders = new ArrayList<>();
+            for (int i = 0; i < 300; i++) {
+                Order order = new Order(t + "-" + i, "Food " + i, temps[(t + i) % 3], 20 + (i * 37) % 200);
+                order.setTimestamp(Instant.now().minusSeconds(5)); // hot orders are ready at once
+                orders.add(order);
+            }
+            perThread.add(orders);
+        }
+        ActionLog log = new ActionLog();
+        AtomicBoolean running = new AtomicBoolean(true);
+        List<String> overfull = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        try {
+            Future<?> monitor = executor.submit(() -> {
+                while (running.get()) {
+                    int cooler = oms.getMetrics().getCoolerOccupancy();
+                    int heater = oms.getMetrics().getHeaterOccupancy();
+                    int shelf = oms.getMetrics().getShelfOccupancy();
+                    if (cooler > 6 || heater > 6 || shelf > 12) {
+                        overfull.add(cooler + "/" + heater + "/" + shelf);
+                    }
+                }
+            });
+            List<Future<?>> callers = new ArrayList<>();
+            for (List<Order> orders : perThread) {
+                callers.add(executor.submit(() -> {
+                    for (int i = 0; i < orders.size(); i++) {
+                        oms.placeOrder(orders.get(i), log);
+                        if (i % 2 == 1) {
+                            oms.pickupOrder(orders.get(i - 1), log);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> caller : callers) {
+                caller.get();
+            }
+            running.set(false);
+            monitor.get();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(List.of(), overfull);
+        List<Action> actions = log.toList();
+        Map<String, Long> terminal = actions.stream()
+                .filter(a -> a.getAction().equals(Action.PICKUP) || a.getAction().equals(Action.DISCARD))
+                .collect(Collectors.groupingBy(Action::getId, Collectors.counting()));
+        Map<Location, Long> held = new EnumMap<>(Location.class);
+        for (List<Order> orders : perThread) {
+            for (Order order : orders) {
+                Location location = location(oms, order);
+                long left = terminal.getOrDefault(order.getId(), 0L);
+                assertTrue(left <= 1, order.getId() + " left " + left + " times");
+                assertTrue(location == Location.NONE ^ left == 0, order.getId() + " is in " + location
+                        + " after leaving " + left + " times");
+                held.merge(location, 1L, Long::sum);
+            }
+        }
+        assertEquals(oms.getMetrics().getCoolerOccupancy(), held.getOrDefault(Location.COOLER, 0L).intValue());
+        assertEquals(oms.getMetrics().getHeaterOccupancy(), held.getOrDefault(Location.HEATER, 0L).intValue());
+        assertEquals(oms.getMetrics().getShelfOccupancy(), held.getOrDefault(Location.SHELF, 0L).intValue());
+    }
+
+    @Test
+    void testPlacement_StampsOrdersBeforeTheStorageFixesTheirDeadline() {
+        Instant now = Instant.parse("2024-01-01T00:00:00Z");
+        OrderManagementSystem fixed = new OrderManagementSystem(Clock.fixed(now, ZoneOffset.UTC));
+        long placedAt = ChronoUnit.MICROS.between(Instant.EPOCH, now);
+        Instant arrival = now.minusSeconds(3);
+        List<Order> orders = new ArrayList<>();
+        orders.addAll(batch("c", "cold", 7, 100, arrival)); // six in the cooler, one on the shelf
+        orders.addAll(batch("r", "room", 1, 100, arrival));
+        orders.addAll(batch("h", "hot", 1, 100, arrival));
+
+        for (Order order : orders) {
+            fixed.placeOrder(order, new ArrayList<>());
+        }
+
+        OrderTable table = fixed.getOrderTable();
+        for (Order order : orders) {
+            int handle = table.handle(order);
+            long stamped = order.getTemperature() == Temperature.HOT ? order.getTimestamp() : placedAt;
+            assertEquals(stamped, table.timestamp(handle), order.getId());
+            assertEquals(stamped + table.freshness(handle) * 1_000_000L, table.deadline(handle), order.getId());
+        }
+        assertEquals(Location.SHELF, location(fixed, orders.get(6)));
+    }
+
+    @Test
+    void testPickupOrders_PicksUpReadyOrdersAtOneInstant() {
+        List<Order> orders = batch("h", "hot", 4, 100, Instant.now().minusSeconds(5));
+        List<Order> early = batch("e", "hot", 2, 100, Instant.now());
+        List<Action> actions = new ArrayList<>();
+        oms.placeOrders(orders, actions);
+        oms.placeOrders(early, actions);
+        actions.clear();
+
+        List<Order> pickups = new ArrayList<>(orders);
+        pickups.addAll(early);
+        oms.pickupOrders(pickups, actions);
+
+        assertEquals(4, count(actions, Action.PICKUP));
+        assertEquals(1, actions.stream().map(Action::getTimestamp).distinct().count());
+        assertEquals(2, oms.getMetrics().getHeaterOccupancy());
+    }
+
+    @Test
+    void testPickupOrder_MovesLeastFreshShelfOrderIntoFreedSlot() {
+        List<Order> ready = batch("h", "hot", 6, 100, Instant.now().minusSeconds(5));
+        Order fresh = new Order("s1", "Stew", "hot", 300);
+        Order stale = new Order("s2", "Soup", "hot", 40);
+        fresh.setTimestamp(Instant.now());
+        stale.setTimestamp(Instant.now());
+        List<Action> actions = new ArrayList<>();
+        oms.placeOrders(ready, actions);
+        oms.placeOrder(fresh, actions);
+        oms.placeOrder(stale, actions);
+        actions.clear();
+
+        oms.pickupOrder(ready.get(0), actions);
+
+        assertEquals(2, actions.size());
+        assertEquals(Action.PICKUP, actions.get(0).getAction());
+        assertEquals(Action.MOVE, actions.get(1).getAction());
+        assertEquals("s2", actions.get(1).getId());
+        assertEquals(6, oms.getMetrics().getHeaterOccupancy());
+        assertEquals(1, oms.getMetrics().getShelfOccupancy());
+    }
 }
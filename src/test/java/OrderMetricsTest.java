@@ -0,0 +1,52 @@
+import com.css.challenge.client.Action;
+import com.css.challenge.client.Order;
+import com.css.challenge.management.OrderManagementSystem;
+import com.css.challenge.metrics.LatencyHistogram;
+import com.css.challenge.metrics.LatencySnapshot;
+import com.css.challenge.metrics.OrderMetrics;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderMetricsTest {
+
+    @Test
+    void testHistogramPercentilesWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long nanos = 1; nanos <= 100_000; nanos++) {
+            histogram.record(nanos * 1000);
+        }
+
+        LatencySnapshot snapshot = histogram.snapshot();
+        assertEquals(100_000, snapshot.getCount());
+        assertEquals(100_000_000, snapshot.getMax());
+        assertEquals(50_000_000, snapshot.getP50(), 50_000_000 * 0.035);
+        assertEquals(99_000_000, snapshot.getP99(), 99_000_000 * 0.035);
+        assertTrue(snapshot.getP50() <= snapshot.getP90() && snapshot.getP90() <= snapshot.getP99());
+    }
+
+    @Test
+    void testCountsActionsBranchesAndOccupancy() {
+        OrderManagementSystem oms = new OrderManagementSystem();
+        List<Action> actions = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            Order order = new Order(String.valueOf(i), "Food", "room", 60);
+            order.setTimestamp(Instant.now());
+            oms.placeOrder(order, actions);
+        }
+
+        OrderMetrics metrics = oms.getMetrics();
+        assertEquals(30, metrics.getPlaced());
+        assertEquals(18, metrics.getDiscarded());
+        assertEquals(12, metrics.getShelfOccupancy());
+        assertEquals(0, metrics.getCoolerOccupancy());
+        assertEquals(30, metrics.getLatency(OrderMetrics.Operation.PLACE).snapshot().getCount());
+        assertEquals(12, metrics.getLatency(OrderMetrics.Operation.ROOM_SHELF).snapshot().getCount());
+        assertEquals(18, metrics.getLatency(OrderMetrics.Operation.ROOM_DISCARD).snapshot().getCount());
+        assertTrue(metrics.getLatencies().containsKey("room_discard"));
+    }
+}
@@ -0,0 +1,53 @@
+import com.css.challenge.client.Order;
+import com.css.challenge.client.OrderReader;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderReaderTest {
+
+    private static List<Order> read(String json) throws IOException {
+        List<Order> orders = new ArrayList<>();
+        try (OrderReader reader = new OrderReader(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)))) {
+            reader.forEachRemaining(orders::add);
+        }
+        return orders;
+    }
+
+    @Test
+    void testReadsJsonArray() throws IOException {
+        List<Order> orders = read("[{\"id\":\"a\",\"name\":\"Pizza\",\"temp\":\"hot\",\"freshness\":120},"
+                + "{\"id\":\"b\",\"name\":\"Salad\",\"temp\":\"cold\",\"freshness\":90}]");
+
+        assertEquals(2, orders.size());
+        assertEquals("a", orders.get(0).getId());
+        assertEquals("cold", orders.get(1).getTemp());
+        assertEquals(90, orders.get(1).getFreshness());
+    }
+
+    @Test
+    void testReadsNewlineDelimitedOrders() throws IOException {
+        List<Order> orders = read("{\"id\":\"a\",\"name\":\"Pizza\",\"temp\":\"hot\",\"freshness\":120}\n"
+                + "{\"id\":\"b\",\"name\":\"Bread\",\"temp\":\"room\",\"freshness\":60}\n");
+
+        assertEquals(2, orders.size());
+        assertEquals("b", orders.get(1).getId());
+    }
+
+    @Test
+    void testEmptyArrayHasNoOrders() throws IOException {
+        assertTrue(read("[]").isEmpty());
+    }
+
+    @Test
+    void testRejectsNonOrderValues() {
+        assertThrows(UncheckedIOException.class, () -> read("[1, 2]"));
+    }
+}
@@ -0,0 +1,125 @@
+import com.css.challenge.client.Action;
+import com.css.challenge.client.Order;
+import com.css.challenge.client.OrderReader;
+import com.css.challenge.client.Temperature;
+import com.css.challenge.management.OrderManagementSystem;
+import com.css.challenge.storage.Location;
+import com.css.challenge.storage.OrderTable;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderTableTest {
+
+    @Test
+    void testTemperatureIsParsedOnceAndKeepsJsonName() {
+        assertEquals(Temperature.HOT, Orders.order("1", "HOT", 10).getTemperature());
+        assertEquals("hot", Orders.order("1", "HOT", 10).getTemp());
+        assertEquals(Temperature.ROOM, Orders.order("2", "frozen", 10).getTemperature());
+    }
+
+    @Test
+    void testTracksLocationUntilPickupAndReusesHandles() {
+        OrderManagementSystem oms = new OrderManagementSystem();
+        OrderTable table = oms.getOrderTable();
+        List<Action> actions = new ArrayList<>();
+        Instant placedAt = Instant.now().minusSeconds(5);
+
+        Order hot = Orders.order("1", "hot", 100, placedAt);
+        oms.placeOrder(hot, actions);
+        int handle = hot.getHandle();
+        assertEquals(Location.HEATER, table.location(handle));
+        assertEquals(hot.getDeadline(), table.deadline(handle));
+        assertEquals(100, table.freshness(handle));
+
+        Order room = Orders.order("2", "room", 100, placedAt);
+        oms.placeOrder(room, actions);
+        assertEquals(Location.SHELF, table.location(room.getHandle()));
+        assertEquals(2, table.size());
+
+        oms.pickupOrder(hot, actions);
+        assertEquals(-1, table.handle(hot));
+        assertEquals(Location.NONE, table.location(handle));
+        assertEquals(Action.PICKUP, actions.get(actions.size() - 1).getAction());
+
+        Order next = Orders.order("3", "cold", 100, placedAt);
+        oms.placeOrder(next, actions);
+        assertEquals(handle, next.getHandle());
+        assertEquals(Location.COOLER, table.location(handle));
+    }
+
+    @Test
+    void testOrdersAreInternedAsTheyAreParsed() throws Exception {
+        OrderManagementSystem oms = new OrderManagementSystem();
+        OrderTable table = oms.getOrderTable();
+        String json = "[{\"id\":\"a\",\"name\":\"Ramen\",\"temp\":\"hot\",\"freshness\":60},"
+                + "{\"id\":\"b\",\"name\":\"Salad\",\"temp\":\"cold\",\"freshness\":30}]";
+        Iterator<Order> orders = table.intern(new OrderReader(
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8))));
+
+        Order first = orders.next();
+        int handle = first.getHandle();
+        assertEquals(handle, table.handle(first));
+        assertEquals("a", table.id(handle));
+        assertEquals(Temperature.HOT, table.temperature(handle));
+        assertEquals(Location.NONE, table.location(handle));
+
+        List<Action> actions = new ArrayList<>();
+        first.setTimestamp(Instant.now().minusSeconds(5));
+        oms.placeOrder(first, actions);
+        assertEquals(handle, first.getHandle()); // placement keeps the handle given at parse time
+        assertEquals(Location.HEATER, table.location(handle));
+        assertEquals(first.getDeadline(), table.deadline(handle));
+
+        Order second = orders.next();
+        assertEquals(2, table.size());
+        table.release(second); // e.g. turned away before it was ever stored
+        assertEquals(-1, table.handle(second));
+        table.release(first); // stored orders keep their handle
+        assertEquals(Location.HEATER, table.location(first.getHandle()));
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    void testConcurrentRegistrationHandsOutDistinctDenseHandles() throws Exception {
+        OrderTable table = new OrderTable();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<int[]>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < 8; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    int[] handles = new int[2000];
+                    for (int i = 0; i < handles.length; i++) {
+                        handles[i] = table.register(Orders.order(thread + "-" + i, "hot", 10));
+                    }
+                    return handles;
+                }));
+            }
+            BitSet seen = new BitSet();
+            for (Future<int[]> future : futures) {
+                for (int handle : future.get()) {
+                    assertFalse(seen.get(handle));
+                    seen.set(handle);
+                    assertEquals(Location.NONE, table.location(handle));
+                }
+            }
+            assertEquals(16000, seen.cardinality());
+            assertEquals(16000, seen.nextClearBit(0)); // spans several chunks without gaps
+            assertEquals(16000, table.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
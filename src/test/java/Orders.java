@@ -0,0 +1,21 @@
+import com.css.challenge.client.Order;
+
+import java.time.Instant;
+
+/** Order factory shared by the tests: names are derived from ids, and orders are stamped as placed when given. */
+final class Orders {
+
+    private Orders() {
+    }
+
+    static Order order(String id, String temp, int freshness, Instant placedAt) {
+        Order order = new Order(id, "Food " + id, temp, freshness);
+        order.setTimestamp(placedAt);
+        return order;
+    }
+
+    /** An order placed now. */
+    static Order order(String id, String temp, int freshness) {
+        return order(id, temp, freshness, Instant.now());
+    }
+}
@@ -0,0 +1,77 @@
+import com.css.challenge.client.ActionLog;
+import com.css.challenge.client.ActionSink;
+import com.css.challenge.client.Order;
+import com.css.challenge.management.OrderManagementSystem;
+import com.css.challenge.management.PickupScheduler;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PickupSchedulerTest {
+
+    /** An order management system that only records the pickups it is asked for. */
+    private static OrderManagementSystem recording(List<String> fired) {
+        return new OrderManagementSystem() {
+            @Override
+            public void pickupOrder(Order order, ActionSink actions) {
+                fired.add(order.getId());
+            }
+        };
+    }
+
+    @Test
+    void testPickupsFireInDueOrder() throws Exception {
+        List<String> fired = new CopyOnWriteArrayList<>();
+        PickupScheduler scheduler = new PickupScheduler(recording(fired), new ActionLog());
+        scheduler.schedule(Orders.order("late", "hot", 50), Duration.ofMillis(150));
+        scheduler.schedule(Orders.order("early", "hot", 50), Duration.ofMillis(10));
+        scheduler.schedule(Orders.order("middle", "hot", 50), Duration.ofMillis(80));
+        scheduler.start();
+
+        scheduler.shutdown();
+        assertTrue(scheduler.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(List.of("early", "middle", "late"), fired);
+    }
+
+    @Test
+    void testShutdown_DrainsPendingPickupsAndRefusesNewOnes() throws Exception {
+        List<String> fired = new CopyOnWriteArrayList<>();
+        PickupScheduler scheduler = new PickupScheduler(recording(fired), new ActionLog());
+        scheduler.start();
+        for (int i = 0; i < 20; i++) {
+            scheduler.schedule(Orders.order(String.valueOf(i), "cold", 50), Duration.ofMillis(5 * i));
+        }
+
+        scheduler.shutdown();
+        scheduler.shutdown(); // a second shutdown changes nothing
+        assertThrows(IllegalStateException.class,
+                () -> scheduler.schedule(Orders.order("after", "cold", 50), Duration.ZERO));
+        assertTrue(scheduler.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(20, fired.size());
+        assertFalse(fired.contains("after"));
+    }
+
+    @Test
+    void testAwaitTermination_InterruptsWorkerAndDropsPickupsNotYetDue() throws Exception {
+        List<String> fired = new CopyOnWriteArrayList<>();
+        PickupScheduler scheduler = new PickupScheduler(recording(fired), new ActionLog());
+        scheduler.start();
+        scheduler.schedule(Orders.order("now", "room", 50), Duration.ZERO);
+        scheduler.schedule(Orders.order("later", "room", 50), Duration.ofHours(1));
+        scheduler.shutdown();
+
+        long start = System.nanoTime();
+        assertFalse(scheduler.awaitTermination(100, TimeUnit.MILLISECONDS));
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+        assertEquals(List.of("now"), fired);
+        assertFalse(Thread.currentThread().isInterrupted()); // only the worker was interrupted
+
+        Thread.sleep(50);
+        assertEquals(List.of("now"), fired); // the worker has exited, so nothing fires afterwards
+    }
+}
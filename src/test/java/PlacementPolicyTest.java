@@ -0,0 +1,102 @@
+import com.css.challenge.client.Action;
+import com.css.challenge.client.Order;
+import com.css.challenge.config.Config;
+import com.css.challenge.management.DefaultPlacementPolicy;
+import com.css.challenge.management.Eviction;
+import com.css.challenge.management.LookaheadPlacementPolicy;
+import com.css.challenge.management.Simulation;
+import com.css.challenge.storage.Shelf;
+import com.css.challenge.storage.Storage;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PlacementPolicyTest {
+
+    private static long now() {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now());
+    }
+
+    @Test
+    void testDefaultPolicy_MovesToHeaterFirstThenDiscardsLeastFresh() {
+        Storage cooler = new Storage(1);
+        Storage heater = new Storage(1);
+        Shelf shelf = new Shelf(3);
+        shelf.addOrder(Orders.order("hot", "hot", 50, Instant.now()));
+        shelf.addOrder(Orders.order("cold", "cold", 60, Instant.now()));
+        shelf.addOrder(Orders.order("room", "room", 10, Instant.now()));
+        DefaultPlacementPolicy policy = new DefaultPlacementPolicy();
+
+        Eviction eviction = policy.evict(null, cooler, heater, shelf, now());
+        assertTrue(eviction.isMove());
+        assertSame(heater, eviction.getTarget());
+        assertEquals("hot", eviction.getOrder().getId());
+
+        heater.addOrder(Orders.order("h", "hot", 50, Instant.now()));
+        cooler.addOrder(Orders.order("c", "cold", 50, Instant.now()));
+        eviction = policy.evict(null, cooler, heater, shelf, now());
+        assertFalse(eviction.isMove());
+        assertEquals("room", eviction.getOrder().getId());
+    }
+
+    @Test
+    void testLookaheadPolicy_DiscardsDoomedOrderInsteadOfMoving() {
+        Storage cooler = new Storage(1);
+        Storage heater = new Storage(1);
+        Shelf shelf = new Shelf(3);
+        shelf.addOrder(Orders.order("hot", "hot", 50, Instant.now()));
+        shelf.addOrder(Orders.order("doomed", "room", 2, Instant.now())); // stale before its earliest pickup
+        shelf.addOrder(Orders.order("room", "room", 30, Instant.now()));
+        LookaheadPlacementPolicy policy = new LookaheadPlacementPolicy(Duration.ofSeconds(4), Duration.ofSeconds(8));
+
+        Eviction eviction = policy.evict(null, cooler, heater, shelf, now());
+        assertFalse(eviction.isMove());
+        assertEquals("doomed", eviction.getOrder().getId());
+
+        shelf.removeOrder("doomed");
+        eviction = policy.evict(null, cooler, heater, shelf, now());
+        assertTrue(eviction.isMove());
+        assertEquals("hot", eviction.getOrder().getId());
+    }
+
+    @Test
+    void testLookaheadPolicy_PicksUpMoreFreshOrdersThanDefault() {
+        Config original = Config.get();
+        try {
+            assertTrue(freshPickups("lookahead") > freshPickups("default"));
+        } finally {
+            Config.set(original);
+        }
+    }
+
+    private static long freshPickups(String policy) {
+        Properties properties = new Properties();
+        properties.setProperty("placement.policy", policy);
+        Config.set(Config.parse(properties));
+        String[] temps = {"hot", "cold", "room"};
+        Random random = new Random(1);
+        List<Order> orders = new ArrayList<>();
+        Map<String, Order> byId = new HashMap<>();
+        for (int i = 0; i < 5_000; i++) {
+            Order order = new Order(String.valueOf(i), "Food " + i, temps[random.nextInt(3)], 5 + random.nextInt(50));
+            orders.add(order);
+            byId.put(order.getId(), order);
+        }
+        List<Action> actions = new Simulation(Duration.ofMillis(250), Duration.ofSeconds(4), Duration.ofSeconds(8), 3)
+                .run(orders, 1_700_000_000_000_000L);
+        return actions.stream()
+                .filter(action -> action.getAction().equals(Action.PICKUP))
+                .filter(action -> byId.get(action.getId()).getDeadline() >= action.getTimestamp())
+                .count();
+    }
+}
@@ -0,0 +1,124 @@
+import com.css.challenge.client.Order;
+import com.css.challenge.storage.PickupResult;
+import com.css.challenge.storage.PickupWindow;
+import com.css.challenge.storage.Shelf;
+import com.css.challenge.storage.Storage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShelfTest {
+
+    private Shelf shelf;
+
+    @BeforeEach
+    void setUp() {
+        shelf = new Shelf(4);
+    }
+
+    @Test
+    void testOrderToDiscard_IsLeastFreshAcrossTemperatures() {
+        shelf.addOrder(Orders.order("1", "hot", 90));
+        shelf.addOrder(Orders.order("2", "cold", 30));
+        shelf.addOrder(Orders.order("3", "room", 60));
+
+        assertEquals("2", shelf.getOrderToDiscard().getId());
+        assertTrue(shelf.removeOrder("2"));
+        assertEquals("3", shelf.getOrderToDiscard().getId());
+    }
+
+    @Test
+    void testOrderToDiscard_UsesDeadlineFromPlacementTime() {
+        Order older = new Order("1", "Soup", "room", 60);
+        older.setTimestamp(Instant.now().minusSeconds(50));
+        shelf.addOrder(older);
+        shelf.addOrder(Orders.order("2", "room", 30));
+
+        assertEquals(older.getTimestamp() + 60_000_000L, older.getDeadline());
+        assertEquals("1", shelf.getOrderToDiscard().getId());
+    }
+
+    @Test
+    void testLeastFreshHotAndColdOrders() {
+        shelf.addOrder(Orders.order("1", "hot", 90));
+        shelf.addOrder(Orders.order("2", "hot", 40));
+        shelf.addOrder(Orders.order("3", "cold", 70));
+        shelf.addOrder(Orders.order("4", "cold", 20));
+
+        assertEquals("2", shelf.getLeastFreshHotOrder().getId());
+        assertEquals("4", shelf.getLeastFreshColdOrder().getId());
+
+        shelf.removeOrder("4");
+        assertEquals("3", shelf.getLeastFreshColdOrder().getId());
+    }
+
+    @Test
+    void testCapacityIsFreedOnRemove() {
+        for (int i = 0; i < 4; i++) {
+            assertTrue(shelf.addOrder(Orders.order(String.valueOf(i), "room", 50 + i)));
+        }
+        assertTrue(shelf.isFull());
+        assertFalse(shelf.addOrder(Orders.order("5", "room", 10)));
+
+        assertTrue(shelf.removeOrder("2"));
+        assertFalse(shelf.removeOrder("2"));
+        assertFalse(shelf.isFull());
+        assertTrue(shelf.addOrder(Orders.order("5", "room", 10)));
+        assertEquals("5", shelf.getOrderToDiscard().getId());
+    }
+
+    @Test
+    void testSetCapacity_ResizesWithoutEvicting() {
+        for (int i = 0; i < 4; i++) {
+            shelf.addOrder(Orders.order(String.valueOf(i), "room", 50));
+        }
+
+        shelf.setCapacity(2);
+        assertTrue(shelf.isFull());
+        shelf.removeOrder("0");
+        assertTrue(shelf.isFull());
+
+        shelf.setCapacity(5);
+        assertTrue(shelf.addOrder(Orders.order("5", "room", 50)));
+        assertTrue(shelf.addOrder(Orders.order("6", "room", 50)));
+        assertFalse(shelf.addOrder(Orders.order("7", "room", 50)));
+    }
+
+    @Test
+    void testMoveOrder_HalvesFreshness() {
+        Order order = Orders.order("1", "hot", 80);
+
+        assertTrue(shelf.moveOrder(order));
+
+        assertEquals(40, order.getFreshness());
+        assertEquals("1", shelf.getLeastFreshHotOrder().getId());
+    }
+
+    @Test
+    void testPickupWindow_IsTheSameForShelfAndStorage() {
+        Instant now = Instant.parse("2024-01-01T00:00:00Z");
+        Clock clock = Clock.fixed(now, ZoneOffset.UTC);
+        PickupWindow window = new PickupWindow(Duration.ofSeconds(2), Duration.ofSeconds(3));
+        for (Storage storage : new Storage[]{new Shelf(4, clock), new Storage(4, clock)}) {
+            storage.setPickupWindow(window);
+            String[] ids = {"early", "first", "last", "late"};
+            long[] ages = {1_999, 2_000, 3_000, 3_001};
+            for (int i = 0; i < ids.length; i++) {
+                Order order = new Order(ids[i], "Soup", "room", 100);
+                order.setTimestamp(now.minusMillis(ages[i]));
+                storage.addOrder(order);
+            }
+
+            assertEquals(PickupResult.NOT_READY, storage.pickup("early"));
+            assertEquals(PickupResult.PICKED_UP, storage.pickup("first"));
+            assertEquals(PickupResult.PICKED_UP, storage.pickup("last"));
+            assertEquals(PickupResult.EXPIRED, storage.pickup("late"));
+        }
+    }
+}
@@ -0,0 +1,77 @@
+import com.css.challenge.client.Action;
+import com.css.challenge.client.Order;
+import com.css.challenge.management.Simulation;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SimulationTest {
+
+    private static final long START = 1_700_000_000_000_000L;
+
+    private static List<Order> orders(int count) {
+        String[] temps = {"hot", "cold", "room"};
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            orders.add(new Order(String.valueOf(i), "Food " + i, temps[i % 3], 30 + i % 90));
+        }
+        return orders;
+    }
+
+    @Test
+    void testPlacesAndPicksUpOnVirtualSchedule() {
+        Simulation simulation = new Simulation(Duration.ofMillis(500), Duration.ofSeconds(4), Duration.ofSeconds(8), 42);
+
+        List<Action> actions = simulation.run(orders(3), START);
+
+        assertEquals(6, actions.size());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(Action.PLACE, actions.get(i).getAction());
+            assertEquals(START + i * 500_000L, actions.get(i).getTimestamp());
+        }
+        for (Action action : actions.subList(3, 6)) {
+            assertEquals(Action.PICKUP, action.getAction());
+        }
+    }
+
+    @Test
+    void testEveryPlacedOrderIsPickedUpOrDiscardedUnderLoad() {
+        Simulation simulation = new Simulation(Duration.ofMillis(10), Duration.ofSeconds(4), Duration.ofSeconds(8), 7);
+
+        List<Action> actions = simulation.run(orders(2_000), START);
+
+        Map<String, Integer> outcomes = new HashMap<>();
+        long previous = Long.MIN_VALUE;
+        int places = 0;
+        for (Action action : actions) {
+            if (Action.PLACE.equals(action.getAction())) {
+                places++;
+            } else if (!Action.MOVE.equals(action.getAction())) {
+                outcomes.merge(action.getId(), 1, Integer::sum);
+            }
+            if (!Action.PLACE.equals(action.getAction())) {
+                assertTrue(action.getTimestamp() >= previous);
+                previous = action.getTimestamp();
+            }
+        }
+        assertEquals(2_000, places);
+        assertEquals(2_000, outcomes.size());
+        assertTrue(outcomes.values().stream().allMatch(count -> count == 1));
+    }
+
+    @Test
+    void testSameSeedGivesSameActions() {
+        List<Action> first = new Simulation(Duration.ofMillis(50), Duration.ofSeconds(4), Duration.ofSeconds(8), 99)
+                .run(orders(500), START);
+        List<Action> second = new Simulation(Duration.ofMillis(50), Duration.ofSeconds(4), Duration.ofSeconds(8), 99)
+                .run(orders(500), START);
+
+        assertEquals(first.toString(), second.toString());
+    }
+}
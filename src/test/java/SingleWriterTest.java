@@ -0,0 +1,131 @@
+import com.css.challenge.client.Action;
+import com.css.challenge.client.ActionLog;
+import com.css.challenge.client.ActionSink;
+import com.css.challenge.client.Order;
+import com.css.challenge.management.SingleWriterOrderManagementSystem;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleWriterTest {
+
+    private static long count(List<Action> actions, String action) {
+        return actions.stream().filter(a -> a.getAction().equals(action)).count();
+    }
+
+    @Test
+    void testPlaceAndPickupRunOnTheWriterThread() throws Exception {
+        SingleWriterOrderManagementSystem oms = new SingleWriterOrderManagementSystem(Clock.systemUTC(), null, 8);
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        ActionLog log = new ActionLog();
+        ActionSink sink = (timestamp, id, action) -> {
+            threads.add(Thread.currentThread().getName());
+            log.append(timestamp, id, action);
+        };
+        String[] temps = {"hot", "cold", "room"};
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int thread = t;
+                futures.add(callers.submit(() -> {
+                    for (int i = 0; i < 250; i++) {
+                        Order order = Orders.order(thread + "-" + i, temps[i % 3], 100, Instant.now().minusSeconds(5));
+                        oms.placeOrder(order, sink);
+                        oms.pickupOrder(order, sink);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+        oms.close();
+
+        List<Action> actions = log.toList();
+        assertEquals(Set.of("oms-writer"), threads);
+        assertEquals(2000, count(actions, Action.PLACE));
+        assertEquals(oms.getOrderTable().size(), 2000 - count(actions, Action.PICKUP) - count(actions, Action.DISCARD));
+        assertTrue(count(actions, Action.PICKUP) > 0); // hot orders keep their timestamp, so are ready at once
+    }
+
+    @Test
+    void testFailureIsRethrownToTheCaller() throws Exception {
+        SingleWriterOrderManagementSystem oms = new SingleWriterOrderManagementSystem();
+        ActionSink failing = (timestamp, id, action) -> {
+            throw new IllegalStateException("sink is down");
+        };
+
+        assertThrows(IllegalStateException.class,
+                () -> oms.placeOrder(Orders.order("1", "room", 50, Instant.now()), failing));
+        List<Action> actions = new ArrayList<>();
+        oms.placeOrder(Orders.order("2", "room", 50, Instant.now()), actions);
+        assertEquals(1, actions.size());
+
+        oms.close();
+        assertThrows(IllegalStateException.class, () -> oms.placeOrder(Orders.order("3", "room", 50, Instant.now()), actions));
+    }
+
+    @Test
+    void testWriterKeepsGoingAfterAnError() {
+        SingleWriterOrderManagementSystem oms = new SingleWriterOrderManagementSystem();
+        ActionSink failing = (timestamp, id, action) -> {
+            throw new AssertionError("sink is broken");
+        };
+
+        assertThrows(AssertionError.class, () -> oms.placeOrder(Orders.order("1", "room", 50, Instant.now()), failing));
+        List<Action> actions = new ArrayList<>();
+        oms.placeOrder(Orders.order("2", "room", 50, Instant.now()), actions);
+        assertEquals(1, actions.size());
+        oms.close();
+    }
+
+    @Test
+    void testCallersRacingCloseAreAppliedOrRefused() throws Exception {
+        SingleWriterOrderManagementSystem oms = new SingleWriterOrderManagementSystem(Clock.systemUTC(), null, 8);
+        AtomicInteger applied = new AtomicInteger();
+        AtomicInteger refused = new AtomicInteger();
+        ActionLog log = new ActionLog();
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int thread = t;
+                futures.add(callers.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        try {
+                            oms.placeOrder(Orders.order(thread + "-" + i, "room", 100, Instant.now()), log);
+                            applied.incrementAndGet();
+                        } catch (IllegalStateException e) {
+                            refused.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            Thread.sleep(5);
+            oms.close();
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS); // a command claimed behind the stop would wait forever
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        assertEquals(2000, applied.get() + refused.get());
+        assertEquals(applied.get(), count(log.toList(), Action.PLACE));
+    }
+}
@@ -0,0 +1,66 @@
+import com.css.challenge.management.OrderManagementSystem;
+import com.css.challenge.management.Snapshotter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SnapshotterTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testFailedSnapshotDoesNotStopLaterOnes() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch retried = new CountDownLatch(1);
+        OrderManagementSystem oms = new OrderManagementSystem() {
+            @Override
+            public int snapshot(Path directory) {
+                if (attempts.incrementAndGet() == 1) {
+                    throw new IllegalStateException("storage copy failed");
+                }
+                retried.countDown();
+                return 0;
+            }
+        };
+        Snapshotter snapshotter = new Snapshotter(oms, directory, Duration.ofMillis(10));
+        snapshotter.start();
+
+        assertTrue(retried.await(5, TimeUnit.SECONDS));
+        snapshotter.close();
+    }
+
+    @Test
+    void testCloseSkipsFinalSnapshotWhileOneIsStillRunning() throws Exception {
+        AtomicInteger snapshots = new AtomicInteger();
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        OrderManagementSystem oms = new OrderManagementSystem() {
+            @Override
+            public int snapshot(Path directory) {
+                snapshots.incrementAndGet();
+                running.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return 0;
+            }
+        };
+        Snapshotter snapshotter = new Snapshotter(oms, directory, Duration.ofMillis(20));
+        snapshotter.start();
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+
+        snapshotter.close();
+        assertEquals(1, snapshots.get()); // the running snapshot was not joined by a second one
+        release.countDown();
+    }
+}
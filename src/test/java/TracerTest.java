@@ -0,0 +1,127 @@
+import com.css.challenge.trace.TraceEvent;
+import com.css.challenge.trace.Tracer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TracerTest {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    /** Collects what a ring's writer hands out, optionally holding the writer until released. */
+    private static final class Collector implements Tracer.Output {
+        final List<String> lines = new CopyOnWriteArrayList<>();
+        final AtomicLong reportedDrops = new AtomicLong();
+        final CountDownLatch release;
+
+        Collector(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void write(TraceEvent event, String line) {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            lines.add(line);
+        }
+
+        @Override
+        public void dropped(long count) {
+            reportedDrops.addAndGet(count);
+        }
+    }
+
+    @Test
+    void testConcurrentPublishersLoseNothingWhileThereIsRoom() throws Exception {
+        Collector collector = new Collector(new CountDownLatch(0));
+        Tracer.Ring ring = new Tracer.Ring(8192, collector);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> publishers = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                String prefix = t + "-";
+                publishers.add(executor.submit(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        ring.publish(TraceEvent.PICKING_UP, prefix + i, null, 0);
+                    }
+                }));
+            }
+            for (Future<?> publisher : publishers) {
+                publisher.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(ring.flush(5 * SECOND));
+        assertEquals(0, ring.getDropped());
+        assertEquals(4000, collector.lines.size());
+        assertEquals(4000, collector.lines.stream().distinct().count());
+        for (int t = 0; t < 4; t++) { // each publisher's events are written in the order it published them
+            String prefix = "Picking up : " + t + "-";
+            List<String> own = collector.lines.stream().filter(line -> line.startsWith(prefix)).toList();
+            for (int i = 0; i < own.size(); i++) {
+                assertEquals(prefix + i, own.get(i));
+            }
+        }
+    }
+
+    @Test
+    void testFullRingDropsEventsAndReportsThem() {
+        CountDownLatch release = new CountDownLatch(1);
+        Collector collector = new Collector(release);
+        Tracer.Ring ring = new Tracer.Ring(4, collector);
+
+        for (int i = 0; i < 20; i++) {
+            ring.publish(TraceEvent.MOVED, String.valueOf(i), "heater", 0);
+        }
+        long dropped = ring.getDropped();
+        assertTrue(dropped >= 20 - 5, "dropped " + dropped); // four slots, plus the one the writer holds
+        assertFalse(ring.flush(TimeUnit.MILLISECONDS.toNanos(50))); // the writer is held up
+
+        release.countDown();
+        assertTrue(ring.flush(5 * SECOND));
+        assertEquals(20 - dropped, collector.lines.size());
+        assertEquals("Moved order 0 from the shelf to heater", collector.lines.get(0));
+        long deadline = System.nanoTime() + 5 * SECOND;
+        while (collector.reportedDrops.get() < dropped && System.nanoTime() < deadline) {
+            Thread.onSpinWait(); // drops are reported once the writer next finds the ring empty
+        }
+        assertEquals(dropped, collector.reportedDrops.get());
+    }
+
+    @Test
+    void testFlushWaitsForEventsClaimedBeforeIt() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Collector collector = new Collector(release);
+        Tracer.Ring ring = new Tracer.Ring(64, collector);
+        for (int i = 0; i < 10; i++) {
+            ring.publish(TraceEvent.PLACED, String.valueOf(i), "shelf", 0);
+        }
+        Thread releaser = new Thread(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            release.countDown();
+        });
+        releaser.start();
+
+        assertTrue(ring.flush(5 * SECOND));
+        assertEquals(10, collector.lines.size()); // flush only returned once every event was written
+        releaser.join();
+    }
+}